@@ -0,0 +1,68 @@
+package hr.fer.zemris.optjava.dz2;
+
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * Keeps the outcome of a single run of
+ * an algorithm from {@link NumOptAlgorithms}.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class DescentResult {
+
+    /**
+     * Last point reached by the algorithm.
+     */
+    private final RealVector point;
+
+    /**
+     * Number of iterations performed.
+     */
+    private final int iterations;
+
+    /**
+     * {@code true} if the algorithm stopped because the gradient vanished.
+     */
+    private final boolean converged;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param point last point reached.
+     * @param iterations number of iterations performed.
+     * @param converged whether the gradient vanished.
+     */
+    public DescentResult(RealVector point, int iterations, boolean converged) {
+        this.point = point;
+        this.iterations = iterations;
+        this.converged = converged;
+    }
+
+    /**
+     * Provides the last point reached by the algorithm.
+     *
+     * @return last point reached.
+     */
+    public RealVector getPoint() {
+        return point;
+    }
+
+    /**
+     * Provides the number of iterations performed.
+     *
+     * @return number of iterations performed.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Checks whether the algorithm stopped because the gradient vanished.
+     *
+     * @return {@code true} if the algorithm converged, otherwise {@code false}.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+}
@@ -2,9 +2,17 @@ package hr.fer.zemris.optjava.dz2;
 
 import hr.fer.zemris.optjava.dz2.functions.Function1;
 import hr.fer.zemris.optjava.dz2.functions.Function2;
+import hr.fer.zemris.optjava.dz2.trajectory.BinaryTrajectoryRecorder;
+import hr.fer.zemris.optjava.dz2.trajectory.RingBufferTrajectoryRecorder;
+import hr.fer.zemris.optjava.dz2.trajectory.TrajectoryRecorder;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A program that attempts to find the minimum value
  * of a function.
@@ -14,6 +22,17 @@ import org.apache.commons.math3.linear.RealVector;
 
 public class Jednostavno {
 
+    /**
+     * Number of variables in both functions.
+     */
+    private static final int NUMBER_OF_VARIABLES = 2;
+
+    /**
+     * Default maximum number of last iterations printed after the algorithm finishes.
+     * Runs with more iterations print only the last ones unless "recorded:n" raises the limit.
+     */
+    private static final int DEFAULT_RECORDED = 100_000;
+
     /**
      * Used to start the program.
      *
@@ -22,8 +41,36 @@ public class Jednostavno {
      *             maximum number of iterations
      *             x coordinate of starting point
      *             y coordinate of starting point
+     *             optionally followed by "recorded:n" to print at most the last n iterations
+     *             or "trajectory:path" to write every iteration to a binary file instead of printing them
      */
     public static void main(String[] args) {
+        List<String> positional = new ArrayList<>();
+        int recorded = DEFAULT_RECORDED;
+        String trajectory = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("recorded:")) {
+                try {
+                    recorded = Integer.parseInt(arg.replace("recorded:", ""));
+                } catch (NumberFormatException exc) {
+                    System.out.println("Number of recorded iterations must be an integer.");
+                    return;
+                }
+
+                if (recorded < 1) {
+                    System.out.println("Number of recorded iterations must be positive.");
+                    return;
+                }
+            } else if (arg.startsWith("trajectory:")) {
+                trajectory = arg.replace("trajectory:", "");
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        args = positional.toArray(new String[0]);
+
         if (args.length != 2 && args.length != 4) {
             System.err.println("Program takes exactly 2 or 4 arguments.");
             return;
@@ -53,28 +100,44 @@ public class Jednostavno {
             return;
         }
 
+        RingBufferTrajectoryRecorder ring = null;
+        TrajectoryRecorder recorder;
+
+        if (trajectory != null) {
+            try {
+                recorder = new BinaryTrajectoryRecorder(Paths.get(trajectory), NUMBER_OF_VARIABLES);
+            } catch (IOException exc) {
+                System.out.println("Couldn't open trajectory file.");
+                return;
+            }
+        } else {
+            ring = new RingBufferTrajectoryRecorder(Math.max(1, Math.min(iterations, recorded)),
+                    NUMBER_OF_VARIABLES);
+            recorder = ring;
+        }
+
         RealVector solution;
         double value;
 
         switch (args[0]) {
             case "1a":
                 IHFunction f1a = new Function1();
-                solution = NumOptAlgorithms.gradientMinimum(f1a, iterations, point);
+                solution = NumOptAlgorithms.gradientMinimum(f1a, iterations, point, recorder);
                 value = f1a.calculateValue(solution);
                 break;
             case "1b":
                 IHFunction f1b = new Function1();
-                solution = NumOptAlgorithms.newtonMinimum(f1b, iterations, point);
+                solution = NumOptAlgorithms.newtonMinimum(f1b, iterations, point, recorder);
                 value = f1b.calculateValue(solution);
                 break;
             case "2a":
                 IHFunction f2a = new Function2();
-                solution = NumOptAlgorithms.gradientMinimum(f2a, iterations, point);
+                solution = NumOptAlgorithms.gradientMinimum(f2a, iterations, point, recorder);
                 value = f2a.calculateValue(solution);
                 break;
             case "2b":
                 IHFunction f2b = new Function2();
-                solution = NumOptAlgorithms.newtonMinimum(f2b, iterations, point);
+                solution = NumOptAlgorithms.newtonMinimum(f2b, iterations, point, recorder);
                 value = f2b.calculateValue(solution);
                 break;
             default:
@@ -82,6 +145,17 @@ public class Jednostavno {
                 return;
         }
 
+        try {
+            recorder.close();
+        } catch (IOException exc) {
+            System.out.println("Couldn't write trajectory file.");
+            return;
+        }
+
+        if (ring != null) {
+            ring.print(System.out);
+        }
+
         System.out.println("\nSolution: " + solution + ", value: " + value);
     }
 }
@@ -0,0 +1,292 @@
+package hr.fer.zemris.optjava.dz2;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A class that runs algorithms from {@link NumOptAlgorithms}
+ * from multiple initial points in parallel and keeps the best
+ * found solution.
+ * <p>
+ * Initial points are spread over the search space using Latin
+ * hypercube sampling. Each start runs in chunks of iterations
+ * and is cancelled once it is clearly dominated by the best
+ * solution found by any other start.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class MultiStartAlgorithms {
+
+    /**
+     * Low bound used when generating initial solutions.
+     */
+    private static final double LOW_BOUND = -5;
+
+    /**
+     * High bound used when generating initial solutions.
+     */
+    private static final double HIGH_BOUND = 5;
+
+    /**
+     * Number of chunks the iterations of each start are split into.
+     */
+    private static final int CHUNKS = 10;
+
+    /**
+     * Number of chunks performed before a start can be cancelled.
+     */
+    private static final int MINIMUM_CHUNKS = 3;
+
+    /**
+     * A start is cancelled if its value exceeds the best value by
+     * more than this factor of the best value's magnitude.
+     */
+    private static final double DOMINANCE_FACTOR = 10;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private MultiStartAlgorithms() {}
+
+    /**
+     * Used to run a single algorithm from {@link NumOptAlgorithms}.
+     */
+    private interface Algorithm {
+
+        /**
+         * Runs the algorithm.
+         *
+         * @param iterations maximum number of iterations.
+         * @param lineSearchIterations maximum number of bisection steps in each line search.
+         * @param point used as initial solution.
+         *
+         * @return outcome of the run.
+         */
+        DescentResult run(int iterations, int lineSearchIterations, RealVector point);
+    }
+
+    /**
+     * Runs {@link NumOptAlgorithms#gradientMinimum(IFunction, int, RealVector)}
+     * from {@code starts} initial points.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations for each start.
+     * @param starts number of initial points.
+     * @param threads number of threads used.
+     * @param seed used to generate initial points.
+     * @param statistics filled with the outcome of each start, can be {@code null}.
+     *
+     * @return best found local minimum.
+     */
+    public static RealVector gradientMinimum(IFunction function, int iterations, int starts, int threads,
+                                             long seed, List<StartStatistics> statistics) {
+        return run(function, (k, lineSearch, point) -> NumOptAlgorithms.gradientDescent(function, k, lineSearch,
+                point, null),
+                iterations, starts, threads, seed, statistics);
+    }
+
+    /**
+     * Runs {@link NumOptAlgorithms#newtonMinimum(IHFunction, int, RealVector)}
+     * from {@code starts} initial points.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations for each start.
+     * @param starts number of initial points.
+     * @param threads number of threads used.
+     * @param seed used to generate initial points.
+     * @param statistics filled with the outcome of each start, can be {@code null}.
+     *
+     * @return best found local minimum.
+     */
+    public static RealVector newtonMinimum(IHFunction function, int iterations, int starts, int threads,
+                                           long seed, List<StartStatistics> statistics) {
+        return run(function, (k, lineSearch, point) -> NumOptAlgorithms.newtonDescent(function, k, lineSearch,
+                point, null),
+                iterations, starts, threads, seed, statistics);
+    }
+
+    /**
+     * Used internally to run the given {@code algorithm} from all initial points.
+     *
+     * @param function being minimised.
+     * @param algorithm being run.
+     * @param iterations maximum number of iterations for each start.
+     * @param starts number of initial points.
+     * @param threads number of threads used.
+     * @param seed used to generate initial points.
+     * @param statistics filled with the outcome of each start, can be {@code null}.
+     *
+     * @return best found local minimum.
+     */
+    private static RealVector run(IFunction function, Algorithm algorithm, int iterations, int starts,
+                                  int threads, long seed, List<StartStatistics> statistics) {
+        if (starts < 1 || threads < 1) {
+            throw new IllegalArgumentException("Number of starts and threads must be positive.");
+        }
+
+        double[][] points = generateLatinHypercube(starts, function.getNumberOfVariables(), new Random(seed));
+        AtomicReference<StartStatistics> best = new AtomicReference<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<StartStatistics>> futures = new ArrayList<>();
+
+        for (int i = 0; i < starts; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> runStart(function, algorithm, iterations, index,
+                    new ArrayRealVector(points[index], false), best)));
+        }
+
+        try {
+            for (Future<StartStatistics> future : futures) {
+                StartStatistics result = future.get();
+
+                if (statistics != null) {
+                    statistics.add(result);
+                }
+            }
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for starts to finish.", exc);
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Start failed.", exc.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return best.get().getPoint();
+    }
+
+    /**
+     * Runs a single start in {@link #CHUNKS} chunks and publishes
+     * its initial point and progress to {@code best}. Line searches are
+     * limited by the whole {@code iterations} budget, as in a single
+     * uninterrupted run.
+     *
+     * @param function being minimised.
+     * @param algorithm being run.
+     * @param iterations maximum number of iterations.
+     * @param index of the start.
+     * @param point used as initial solution.
+     * @param best shared best solution of all starts.
+     *
+     * @return outcome of the start.
+     */
+    private static StartStatistics runStart(IFunction function, Algorithm algorithm, int iterations, int index,
+                                            RealVector point, AtomicReference<StartStatistics> best) {
+        long start = System.currentTimeMillis();
+        double initialValue = function.calculateValue(point);
+        double value = initialValue;
+        int chunkSize = Math.max(1, iterations / CHUNKS);
+        int performed = 0, chunks = 0;
+        boolean cancelled = false;
+
+        updateBest(best, new StartStatistics(index, initialValue, point, initialValue, 0, 0, false));
+
+        while (performed < iterations) {
+            int current = Math.min(chunkSize, iterations - performed);
+            DescentResult result = algorithm.run(current, iterations, point);
+            RealVector next = result.getPoint();
+
+            performed += result.getIterations();
+            chunks++;
+            value = function.calculateValue(next);
+
+            StartStatistics progress = new StartStatistics(index, initialValue, next, value, performed,
+                    System.currentTimeMillis() - start, false);
+            StartStatistics currentBest = updateBest(best, progress);
+
+            point = next;
+
+            if (result.isConverged()) {
+                break;
+            }
+
+            if (chunks >= MINIMUM_CHUNKS && isDominated(value, currentBest.getValue())) {
+                cancelled = true;
+                break;
+            }
+        }
+
+        return new StartStatistics(index, initialValue, point, value, performed,
+                System.currentTimeMillis() - start, cancelled);
+    }
+
+    /**
+     * Replaces the shared best solution if {@code candidate} is better.
+     *
+     * @param best shared best solution.
+     * @param candidate being offered.
+     *
+     * @return best solution after the update.
+     */
+    private static StartStatistics updateBest(AtomicReference<StartStatistics> best, StartStatistics candidate) {
+        while (true) {
+            StartStatistics current = best.get();
+
+            if (current != null && current.getValue() <= candidate.getValue()) {
+                return current;
+            }
+
+            if (best.compareAndSet(current, candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a start with the given {@code value} is dominated.
+     *
+     * @param value of the start.
+     * @param bestValue best value found by any start.
+     *
+     * @return {@code true} if the start is dominated, otherwise {@code false}.
+     */
+    private static boolean isDominated(double value, double bestValue) {
+        return value - bestValue > DOMINANCE_FACTOR * Math.max(Math.abs(bestValue), 1);
+    }
+
+    /**
+     * Generates initial points using Latin hypercube sampling, so every
+     * variable's range is split into {@code starts} intervals and each
+     * interval is used by exactly one point.
+     *
+     * @param starts number of points.
+     * @param dimension number of variables.
+     * @param rand used to generate random values.
+     *
+     * @return generated points.
+     */
+    private static double[][] generateLatinHypercube(int starts, int dimension, Random rand) {
+        double span = HIGH_BOUND - LOW_BOUND;
+        double[][] points = new double[starts][dimension];
+        int[] permutation = new int[starts];
+
+        for (int j = 0; j < dimension; j++) {
+            for (int i = 0; i < starts; i++) {
+                permutation[i] = i;
+            }
+
+            for (int i = starts - 1; i > 0; i--) {
+                int other = rand.nextInt(i + 1);
+                int temp = permutation[i];
+                permutation[i] = permutation[other];
+                permutation[other] = temp;
+            }
+
+            for (int i = 0; i < starts; i++) {
+                points[i][j] = LOW_BOUND + (permutation[i] + rand.nextDouble()) / starts * span;
+            }
+        }
+
+        return points;
+    }
+}
@@ -1,5 +1,6 @@
 package hr.fer.zemris.optjava.dz2;
 
+import hr.fer.zemris.optjava.dz2.trajectory.TrajectoryRecorder;
 import org.apache.commons.math3.linear.*;
 
 import java.util.Random;
@@ -43,23 +44,57 @@ public class NumOptAlgorithms {
      * @return found local minimum.
      */
     public static RealVector gradientMinimum(IFunction function, int iterations, RealVector point) {
+        return gradientMinimum(function, iterations, point, null);
+    }
+
+    /**
+     * Gradient descent algorithm used to find the minimum value of the given {@link IFunction}.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations.
+     * @param point used as initial solution, {@code null} if it is random.
+     * @param recorder used to record every iteration, {@code null} if iterations aren't recorded.
+     *
+     * @return found local minimum.
+     */
+    public static RealVector gradientMinimum(IFunction function, int iterations, RealVector point,
+                                             TrajectoryRecorder recorder) {
+        return gradientDescent(function, iterations, iterations, point, recorder).getPoint();
+    }
+
+    /**
+     * Gradient descent algorithm used to find the minimum value of the given {@link IFunction},
+     * with a line search limit independent of the number of iterations.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations.
+     * @param lineSearchIterations maximum number of bisection steps in each line search.
+     * @param point used as initial solution, {@code null} if it is random.
+     * @param recorder used to record every iteration, {@code null} if iterations aren't recorded.
+     *
+     * @return outcome of the run.
+     */
+    public static DescentResult gradientDescent(IFunction function, int iterations, int lineSearchIterations,
+                                                RealVector point, TrajectoryRecorder recorder) {
         if (point == null) {
             point = generateRandomSolution(function);
         }
 
         for (int k = 0; k < iterations; k++) {
-            if (checkSolution(point, function)) {
-                return point;
+            RealVector gradient = function.calculateGradient(point);
+
+            if (checkGradient(gradient)) {
+                return new DescentResult(point, k, true);
             }
 
-            System.out.println(point);
+            record(recorder, k, function, point, gradient);
 
-            RealVector d = function.calculateGradient(point).mapMultiply(-1);
-            double lambda = calculateLambda(function, point, iterations);
+            RealVector d = gradient.mapMultiply(-1);
+            double lambda = calculateLambda(function, point, d, lineSearchIterations);
             point = point.add(d.mapMultiply(lambda));
         }
 
-        return point;
+        return new DescentResult(point, iterations, false);
     }
 
     /**
@@ -72,24 +107,118 @@ public class NumOptAlgorithms {
      * @return found local minimum.
      */
     public static RealVector newtonMinimum(IHFunction function, int iterations, RealVector point) {
+        return newtonMinimum(function, iterations, point, null);
+    }
+
+    /**
+     * Newton's algorithm used to find the minimum value of the given {@link IFunction}.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations.
+     * @param point used as initial solution, {@code null} if it is random.
+     * @param recorder used to record every iteration, {@code null} if iterations aren't recorded.
+     *
+     * @return found local minimum.
+     */
+    public static RealVector newtonMinimum(IHFunction function, int iterations, RealVector point,
+                                           TrajectoryRecorder recorder) {
+        return newtonDescent(function, iterations, iterations, point, recorder).getPoint();
+    }
+
+    /**
+     * Newton's algorithm used to find the minimum value of the given {@link IFunction},
+     * with a line search limit independent of the number of iterations.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations.
+     * @param lineSearchIterations maximum number of bisection steps in each line search.
+     * @param point used as initial solution, {@code null} if it is random.
+     * @param recorder used to record every iteration, {@code null} if iterations aren't recorded.
+     *
+     * @return outcome of the run.
+     */
+    public static DescentResult newtonDescent(IHFunction function, int iterations, int lineSearchIterations,
+                                              RealVector point, TrajectoryRecorder recorder) {
         if (point == null) {
             point = generateRandomSolution(function);
         }
 
         for (int k = 0; k < iterations; k++) {
-            if (checkSolution(point, function)) {
-                return point;
+            RealVector gradient = function.calculateGradient(point);
+
+            if (checkGradient(gradient)) {
+                return new DescentResult(point, k, true);
             }
 
-            System.out.println(point);
+            record(recorder, k, function, point, gradient);
 
             RealMatrix inverse = new LUDecomposition(function.getHesseMatrix(point)).getSolver().getInverse();
-            RealMatrix tau = inverse.scalarMultiply(-1).multiply(
-                    new Array2DRowRealMatrix(function.calculateGradient(point).toArray())
-            );
-            double lambda = calculateLambda(function, point, iterations);
+            RealVector tau = inverse.scalarMultiply(-1).operate(gradient);
+            double lambda = calculateLambda(function, point, gradient.mapMultiply(-1), lineSearchIterations);
 
-            point = point.add(tau.getColumnVector(0).mapMultiply(lambda));
+            point = point.add(tau.mapMultiply(lambda));
+        }
+
+        return new DescentResult(point, iterations, false);
+    }
+
+    /**
+     * Nonlinear conjugate gradient algorithm (Polak-Ribière) used to find
+     * the minimum value of the given {@link IFunction}. Only gradients and
+     * vector operations are used, so it is suited for functions with a large
+     * number of variables, such as sparse linear systems.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations.
+     * @param point used as initial solution, {@code null} if it is random.
+     *
+     * @return found local minimum.
+     */
+    public static RealVector conjugateGradientMinimum(IFunction function, int iterations, RealVector point) {
+        return conjugateGradientMinimum(function, iterations, point, null);
+    }
+
+    /**
+     * Nonlinear conjugate gradient algorithm (Polak-Ribière) used to find
+     * the minimum value of the given {@link IFunction}.
+     *
+     * @param function being minimised.
+     * @param iterations maximum number of iterations.
+     * @param point used as initial solution, {@code null} if it is random.
+     * @param recorder used to record every iteration, {@code null} if iterations aren't recorded.
+     *
+     * @return found local minimum.
+     */
+    public static RealVector conjugateGradientMinimum(IFunction function, int iterations, RealVector point,
+                                                      TrajectoryRecorder recorder) {
+        if (point == null) {
+            point = generateRandomSolution(function);
+        }
+
+        RealVector gradient = function.calculateGradient(point);
+        RealVector d = gradient.mapMultiply(-1);
+
+        for (int k = 0; k < iterations; k++) {
+            if (checkGradient(gradient)) {
+                return point;
+            }
+
+            record(recorder, k, function, point, gradient);
+
+            double lambda = calculateLambda(function, point, d, iterations);
+            point = point.add(d.mapMultiply(lambda));
+
+            RealVector nextGradient = function.calculateGradient(point);
+            double beta = Math.max(0, nextGradient.dotProduct(nextGradient.subtract(gradient))
+                    / gradient.dotProduct(gradient));
+
+            d.mapMultiplyToSelf(beta).combineToSelf(1, -1, nextGradient);
+
+            if (d.dotProduct(nextGradient) >= 0) {
+                d = nextGradient.mapMultiply(-1);
+            }
+
+            gradient = nextGradient;
         }
 
         return point;
@@ -120,41 +249,49 @@ public class NumOptAlgorithms {
      *
      * @param function being used to calculate upper bound.
      * @param solution for which the bound is being calculated.
+     * @param d direction in which the bound is being calculated.
      *
      * @return upper lambda bound.
      */
-    private static double findLambdaUpper(IFunction function, RealVector solution) {
+    private static double findLambdaUpper(IFunction function, RealVector solution, RealVector d) {
         double lambdaUpper = 0.5;
-
-        RealVector dVector = function.calculateGradient(solution).mapMultiply(-1);
-        RealMatrix d = new Array2DRowRealMatrix(dVector.toArray());
         double derivation;
 
         do {
             lambdaUpper *= 2;
 
-            RealVector functionArg = solution.add(dVector.mapMultiply(lambdaUpper));
-            RealVector gradientVector = function.calculateGradient(functionArg);
-            RealMatrix gradientMatrix = new Array2DRowRealMatrix(gradientVector.toArray());
-
-            derivation = gradientMatrix.transpose().multiply(d).getEntry(0, 0);
+            RealVector functionArg = solution.add(d.mapMultiply(lambdaUpper));
+            derivation = function.calculateGradient(functionArg).dotProduct(d);
         } while (derivation < 0);
 
         return lambdaUpper;
     }
 
     /**
-     * Checks if the given {@code point} is the solution.
-     *
-     * @param point being checked.
-     * @param function used to check the {@code point}.
+     * Records an iteration if a {@code recorder} is given.
      *
-     * @return {@code true} if the {@code point} is the solution,
-     * otherwise {@code false}.
+     * @param recorder used to record the iteration, can be {@code null}.
+     * @param iteration index of the iteration.
+     * @param function being minimised.
+     * @param point reached in the iteration.
+     * @param gradient of the {@code function} in {@code point}.
      */
-    private static boolean checkSolution(RealVector point, IFunction function) {
-        RealVector gradient = function.calculateGradient(point);
+    private static void record(TrajectoryRecorder recorder, int iteration, IFunction function,
+                               RealVector point, RealVector gradient) {
+        if (recorder != null) {
+            recorder.record(iteration, point, function.calculateValue(point), gradient.getNorm());
+        }
+    }
 
+    /**
+     * Checks if the given {@code gradient} belongs to a solution.
+     *
+     * @param gradient being checked.
+     *
+     * @return {@code true} if all components of the {@code gradient}
+     * are within {@link #THRESHOLD}, otherwise {@code false}.
+     */
+    private static boolean checkGradient(RealVector gradient) {
         for (int i = 0, size = gradient.getDimension(); i < size; i++) {
             if (Math.abs(gradient.getEntry(i)) > THRESHOLD) {
                 return false;
@@ -165,33 +302,27 @@ public class NumOptAlgorithms {
     }
 
     /**
-     * Finds the lambda value to be used as a step in the next iteration.
+     * Finds the lambda value to be used as a step in the given direction.
      *
      * @param function being minimised.
      * @param point representing the current solution.
+     * @param d direction of the step.
      * @param iterations maximum number of iterations to be performed.
      *
      * @return found lambda value.
      */
-    private static double calculateLambda(IFunction function, RealVector point, int iterations) {
+    private static double calculateLambda(IFunction function, RealVector point, RealVector d, int iterations) {
         double lambdaLower = 0;
-        double lambdaUpper = findLambdaUpper(function, point);
-
-        RealVector solution = point.copy();
+        double lambdaUpper = findLambdaUpper(function, point, d);
 
-        RealVector dVector = function.calculateGradient(point).mapMultiply(-1);
-        RealMatrix d = new Array2DRowRealMatrix(dVector.toArray());
         double lambda = 0.01;
         int k = 0;
 
         while (k < iterations) {
             lambda = (lambdaLower + lambdaUpper) / 2;
 
-            RealVector functionArg = solution.add(dVector.mapMultiply(lambdaUpper));
-            RealVector gradientVector = function.calculateGradient(functionArg);
-            RealMatrix gradientMatrix = new Array2DRowRealMatrix(gradientVector.toArray());
-
-            double derivation = gradientMatrix.transpose().multiply(d).getEntry(0, 0);
+            RealVector functionArg = point.add(d.mapMultiply(lambdaUpper));
+            double derivation = function.calculateGradient(functionArg).dotProduct(d);
 
             if (Math.abs(derivation) < THRESHOLD) {
                 return lambda;
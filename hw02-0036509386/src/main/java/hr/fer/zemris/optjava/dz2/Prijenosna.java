@@ -1,13 +1,10 @@
 package hr.fer.zemris.optjava.dz2;
 
 import hr.fer.zemris.optjava.dz2.functions.Function4;
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.ArrayRealVector;
-import org.apache.commons.math3.linear.RealMatrix;
+import hr.fer.zemris.optjava.dz2.functions.PrijenosnaDataset;
 import org.apache.commons.math3.linear.RealVector;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,22 +19,18 @@ import java.util.List;
 
 public class Prijenosna {
 
-    /**
-     * Keeps the number of variables in the system.
-     */
-    private static final int NUMBER_OF_VARIABLES = 5;
-
     /**
      * Used to start the program.
      *
-     * @param args three arguments
-     *             grad or newton to select the algorithm
+     * @param args three or four arguments
+     *             grad to select the algorithm
      *             maximum number of iterations
      *             path to the file containing the readings
+     *             optional number of initial points searched in parallel
      */
     public static void main(String[] args) {
-        if (args.length != 3) {
-            System.err.println("Program takes exactly 3 arguments.");
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Program takes exactly 3 or 4 arguments.");
             return;
         }
 
@@ -50,50 +43,50 @@ public class Prijenosna {
             return;
         }
 
-        List<String[]> values = new ArrayList<>();
+        int starts = 1;
 
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(args[2]));
-
-            for (String line : lines) {
-                if (line.isBlank() || line.startsWith("#")) {
-                    continue;
-                }
+        if (args.length == 4) {
+            try {
+                starts = Integer.parseInt(args[3]);
+            } catch (NumberFormatException exc) {
+                System.out.println("Argument 4 must be the number of initial points.");
+                return;
+            }
 
-                line = line.replace("[", "").replace("]", "");
-                values.add(line.split(",\\s+"));
+            if (starts < 1) {
+                System.out.println("Number of initial points must be at least one.");
+                return;
             }
+        }
+
+        PrijenosnaDataset dataset;
+
+        try {
+            dataset = PrijenosnaDataset.load(Paths.get(args[2]));
         } catch (IOException exc) {
             System.out.println("Couldn't open file.");
             return;
         }
 
-        int size = values.size();
-
-        double[][] variables = new double[size][NUMBER_OF_VARIABLES];
-        double[] results = new double[size];
-
-        for (int i = 0; i < size; i++) {
-            String[] valueArray = values.get(i);
-
-            for (int j = 0; j < NUMBER_OF_VARIABLES; j++) {
-                variables[i][j] = Double.parseDouble(valueArray[j]);
-            }
+        IFunction function = new Function4(dataset);
+        RealVector solution;
 
-            results[i] = Double.parseDouble(valueArray[NUMBER_OF_VARIABLES]);
+        if (!"grad".equals(args[0])) {
+            System.out.println("Unknown command.");
+            return;
         }
 
-        RealMatrix variableMatrix = new Array2DRowRealMatrix(variables);
-        RealVector resultVector = new ArrayRealVector(results);
-
-        IFunction function = new Function4(variableMatrix, resultVector);
-        RealVector solution;
-
-        if ("grad".equals(args[0])) {
+        if (starts == 1) {
             solution = NumOptAlgorithms.gradientMinimum(function, iterations, null);
         } else {
-            System.out.println("Unknown command.");
-            return;
+            List<StartStatistics> statistics = new ArrayList<>();
+            int threads = Runtime.getRuntime().availableProcessors();
+
+            solution = MultiStartAlgorithms.gradientMinimum(function, iterations, starts, threads,
+                    System.nanoTime(), statistics);
+
+            System.out.println();
+            statistics.forEach(System.out::println);
         }
 
         System.out.println("\nSolution: " + solution);
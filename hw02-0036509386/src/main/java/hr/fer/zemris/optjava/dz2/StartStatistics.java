@@ -0,0 +1,140 @@
+package hr.fer.zemris.optjava.dz2;
+
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * Keeps the outcome of a single start
+ * performed by {@link MultiStartAlgorithms}.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class StartStatistics {
+
+    /**
+     * Index of the start.
+     */
+    private final int index;
+
+    /**
+     * Function's value in the initial point.
+     */
+    private final double initialValue;
+
+    /**
+     * Last point reached by the start.
+     */
+    private final RealVector point;
+
+    /**
+     * Function's value in {@link #point}.
+     */
+    private final double value;
+
+    /**
+     * Number of iterations performed.
+     */
+    private final int iterations;
+
+    /**
+     * Time spent on this start in milliseconds.
+     */
+    private final long time;
+
+    /**
+     * {@code true} if the start was cancelled because
+     * it was dominated by a better start.
+     */
+    private final boolean cancelled;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param index of the start.
+     * @param initialValue function's value in the initial point.
+     * @param point last point reached.
+     * @param value function's value in {@code point}.
+     * @param iterations number of iterations performed.
+     * @param time spent in milliseconds.
+     * @param cancelled whether the start was cancelled.
+     */
+    public StartStatistics(int index, double initialValue, RealVector point, double value,
+                           int iterations, long time, boolean cancelled) {
+        this.index = index;
+        this.initialValue = initialValue;
+        this.point = point;
+        this.value = value;
+        this.iterations = iterations;
+        this.time = time;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Provides the index of the start.
+     *
+     * @return index of the start.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Provides the function's value in the initial point.
+     *
+     * @return value in the initial point.
+     */
+    public double getInitialValue() {
+        return initialValue;
+    }
+
+    /**
+     * Provides the last point reached.
+     *
+     * @return last point reached.
+     */
+    public RealVector getPoint() {
+        return point;
+    }
+
+    /**
+     * Provides the function's value in the last point reached.
+     *
+     * @return value in the last point reached.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Provides the number of iterations performed.
+     *
+     * @return number of iterations performed.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Provides the time spent on this start.
+     *
+     * @return time in milliseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Checks whether the start was cancelled.
+     *
+     * @return {@code true} if the start was cancelled, otherwise {@code false}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public String toString() {
+        return "Start " + index + ": " + initialValue + " -> " + value + " in " + iterations
+                + " iterations, " + time + " ms" + (cancelled ? " (cancelled)" : "");
+    }
+}
@@ -1,6 +1,8 @@
 package hr.fer.zemris.optjava.dz2;
 
 import hr.fer.zemris.optjava.dz2.functions.Function3;
+import hr.fer.zemris.optjava.dz2.functions.SparseFunction3;
+import hr.fer.zemris.optjava.dz2.sparse.SparseSystem;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealMatrix;
@@ -23,14 +25,15 @@ public class Sustav {
     /**
      * Used to start the program.
      *
-     * @param args three arguments
-     *             grad or newton to select the algorithm
+     * @param args three or four arguments
+     *             grad, newton or cg to select the algorithm
      *             maximum number of iterations
      *             path to the file containing the system
+     *             optional sparse if the file is in coordinate format
      */
     public static void main(String[] args) {
-        if (args.length != 3) {
-            System.err.println("Program takes exactly 3 arguments.");
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Program takes exactly 3 or 4 arguments.");
             return;
         }
 
@@ -43,6 +46,16 @@ public class Sustav {
             return;
         }
 
+        if (args.length == 4) {
+            if (!"sparse".equals(args[3])) {
+                System.out.println("Argument 4 must be sparse if given.");
+                return;
+            }
+
+            solveSparse(args[0], iterations, args[2]);
+            return;
+        }
+
         List<String[]> values = new ArrayList<>();
 
         try {
@@ -93,6 +106,52 @@ public class Sustav {
             case "newton":
                 solution = NumOptAlgorithms.newtonMinimum(function, iterations, null);
                 break;
+            case "cg":
+                solution = NumOptAlgorithms.conjugateGradientMinimum(function, iterations, null);
+                break;
+            default:
+                System.out.println("Unknown command.");
+                return;
+        }
+
+        System.out.println("\nSolution: " + solution);
+        System.out.println("Error: " + function.calculateValue(solution));
+    }
+
+    /**
+     * Solves a system given in coordinate format using a
+     * sparse matrix, so only non-zero entries are stored.
+     *
+     * @param algorithm grad or cg, newton isn't supported since it needs a dense Hesse matrix.
+     * @param iterations maximum number of iterations.
+     * @param path to the file containing the system.
+     */
+    private static void solveSparse(String algorithm, int iterations, String path) {
+        SparseSystem system;
+
+        try {
+            system = SparseSystem.load(Paths.get(path));
+        } catch (IOException exc) {
+            System.out.println("Couldn't open file.");
+            return;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException exc) {
+            System.out.println(exc.getMessage());
+            return;
+        }
+
+        IFunction function = new SparseFunction3(system);
+        RealVector solution;
+
+        switch (algorithm) {
+            case "grad":
+                solution = NumOptAlgorithms.gradientMinimum(function, iterations, null);
+                break;
+            case "cg":
+                solution = NumOptAlgorithms.conjugateGradientMinimum(function, iterations, null);
+                break;
+            case "newton":
+                System.out.println("Newton's method isn't supported for sparse systems.");
+                return;
             default:
                 System.out.println("Unknown command.");
                 return;
@@ -5,9 +5,16 @@ import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * A class representing a function with 5 sampled variables
  * and solutions, used to find the values of constants.
+ * <p>
+ * Both the value and the gradient are accumulated in parallel
+ * by splitting the samples into chunks processed in the common
+ * {@link ForkJoinPool}.
  *
  * @author Mateo Imbrišak
  */
@@ -15,14 +22,24 @@ import org.apache.commons.math3.linear.RealVector;
 public class Function4 implements IFunction {
 
     /**
-     * Equation that represents this system.
+     * Number of constants in this function.
+     */
+    private static final int NUMBER_OF_CONSTANTS = 6;
+
+    /**
+     * Index of the accumulated error in the partial sums.
      */
-    private RealMatrix variables;
+    private static final int ERROR_INDEX = NUMBER_OF_CONSTANTS;
 
     /**
-     * Results of the sampling.
+     * Maximum number of samples processed by a single task.
      */
-    private RealVector results;
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Samples used to calculate the error.
+     */
+    private final PrijenosnaDataset dataset;
 
     /**
      * Default constructor that assigns all values.
@@ -31,67 +48,157 @@ public class Function4 implements IFunction {
      * @param results of the sampling.
      */
     public Function4(RealMatrix variables, RealVector results) {
-        this.variables = variables;
-        this.results = results;
+        this(PrijenosnaDataset.fromMatrix(variables, results));
+    }
+
+    /**
+     * Constructor that uses already loaded samples.
+     *
+     * @param dataset containing the samples.
+     */
+    public Function4(PrijenosnaDataset dataset) {
+        this.dataset = dataset;
     }
 
     @Override
     public int getNumberOfVariables() {
-        return 6;
+        return NUMBER_OF_CONSTANTS;
     }
 
     @Override
     public double calculateValue(RealVector point) {
-        double sum = 0;
-
-        for (int i = 0, size = results.getDimension(); i < size; i++) {
-            double result = solve(point, i);
-            sum += result * result;
-        }
-
-        return sum;
+        return accumulate(point, false)[ERROR_INDEX];
     }
 
     @Override
     public RealVector calculateGradient(RealVector point) {
-        int size = results.getDimension();
-        double[] values = new double[getNumberOfVariables()];
-
-        for (int i = 0; i < size; i++) {
-            double current = solve(point, i);
-
-            values[0] += 2 * variables.getEntry(i, 0) * current; // d/da
-            values[1] += 2 * Math.pow(variables.getEntry(i, 0), 3) * variables.getEntry(i, 1) * current; // d/db
-            values[2] += 2 * Math.exp(point.getEntry(3) * variables.getEntry(i, 2)) *
-                    (1 + Math.cos(point.getEntry(4) * variables.getEntry(i, 3))) * current; // d/dc
-            values[3] += 2 * point.getEntry(2) * variables.getEntry(i, 2) *
-                    Math.exp(variables.getEntry(i, 2) * point.getEntry(3)) *
-                    (1 + Math.cos(point.getEntry(4) * variables.getEntry(i, 3))) * current; // d/dd
-            values[4] += -2 * point.getEntry(2) * variables.getEntry(i, 3) *
-                    Math.exp(point.getEntry(3) * variables.getEntry(i, 2)) *
-                    Math.sin(point.getEntry(4) * variables.getEntry(i, 3)) * current; // d/de
-            values[5] += 2 * variables.getEntry(i, 3) * Math.pow(variables.getEntry(i, 4), 2) * current; // d/df
+        double[] sums = accumulate(point, true);
+        double[] values = new double[NUMBER_OF_CONSTANTS];
 
-        }
+        System.arraycopy(sums, 0, values, 0, NUMBER_OF_CONSTANTS);
 
         return (new ArrayRealVector(values)).unitVector();
     }
 
     /**
-     * Provides the solution of the error equation.
+     * Accumulates the error and, optionally, the gradient over all samples.
      *
-     * @param point in which the solution is calculated.
-     * @param i reading which is used for variables.
+     * @param point in which the sums are calculated.
+     * @param gradient whether the gradient should be accumulated.
      *
-     * @return solved error equation in the given {@code point}
-     *          for the given {@code i} sample.
+     * @return an {@code array} containing the gradient components followed
+     *         by the total error at {@link #ERROR_INDEX}.
      */
-    private double solve(RealVector point, int i) {
-        return (point.getEntry(0) * variables.getEntry(i, 0) // a*x1
-                + point.getEntry(1) * Math.pow(variables.getEntry(i, 0), 3) * variables.getEntry(i, 1) // + b*x1^3*x2
-                + point.getEntry(2) * Math.exp(point.getEntry(3) * variables.getEntry(i, 2)) // + c*e(d*x3)
-                * (1 + Math.cos(point.getEntry(4) * variables.getEntry(i, 3))) // * (1+cos(e*x4))
-                + point.getEntry(5) * variables.getEntry(i, 3) * Math.pow(variables.getEntry(i, 4), 2)) // + f*x4*x5^2
-                - results.getEntry(i);
+    private double[] accumulate(RealVector point, boolean gradient) {
+        AccumulationTask task = new AccumulationTask(point.toArray(), 0, dataset.size(), gradient);
+
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * A task that accumulates the partial sums for a range of samples,
+     * splitting itself while the range is larger than {@link #CHUNK_SIZE}.
+     */
+    private class AccumulationTask extends RecursiveTask<double[]> {
+
+        /**
+         * Used for serialization.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Point in which the sums are calculated.
+         */
+        private final double[] point;
+
+        /**
+         * First sample processed by this task, inclusive.
+         */
+        private final int from;
+
+        /**
+         * Last sample processed by this task, exclusive.
+         */
+        private final int to;
+
+        /**
+         * Whether the gradient should be accumulated.
+         */
+        private final boolean gradient;
+
+        /**
+         * Default constructor that assigns all values.
+         *
+         * @param point in which the sums are calculated.
+         * @param from first sample, inclusive.
+         * @param to last sample, exclusive.
+         * @param gradient whether the gradient should be accumulated.
+         */
+        AccumulationTask(double[] point, int from, int to, boolean gradient) {
+            this.point = point;
+            this.from = from;
+            this.to = to;
+            this.gradient = gradient;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return accumulateChunk();
+            }
+
+            int middle = (from + to) >>> 1;
+
+            AccumulationTask left = new AccumulationTask(point, from, middle, gradient);
+            AccumulationTask right = new AccumulationTask(point, middle, to, gradient);
+
+            left.fork();
+            double[] sums = right.compute();
+            double[] leftSums = left.join();
+
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += leftSums[i];
+            }
+
+            return sums;
+        }
+
+        /**
+         * Serially accumulates the partial sums for this task's samples.
+         *
+         * @return partial sums in the layout described in {@link #accumulate(RealVector, boolean)}.
+         */
+        private double[] accumulateChunk() {
+            double[] sums = new double[NUMBER_OF_CONSTANTS + 1];
+            double a = point[0], b = point[1], c = point[2], d = point[3], e = point[4], f = point[5];
+
+            double[] x1 = dataset.x1;
+            double[] x1Cubedx2 = dataset.x1Cubedx2;
+            double[] x3 = dataset.x3;
+            double[] x4 = dataset.x4;
+            double[] x4x5Squared = dataset.x4x5Squared;
+            double[] y = dataset.y;
+
+            for (int i = from; i < to; i++) {
+                double exp = Math.exp(d * x3[i]); // e(d*x3)
+                double cos = 1 + Math.cos(e * x4[i]); // 1+cos(e*x4)
+
+                double current = a * x1[i] + b * x1Cubedx2[i] + c * exp * cos + f * x4x5Squared[i] - y[i];
+                sums[ERROR_INDEX] += current * current;
+
+                if (gradient) {
+                    double twoCurrent = 2 * current;
+
+                    sums[0] += twoCurrent * x1[i]; // d/da
+                    sums[1] += twoCurrent * x1Cubedx2[i]; // d/db
+                    sums[2] += twoCurrent * exp * cos; // d/dc
+                    sums[3] += twoCurrent * c * x3[i] * exp * cos; // d/dd
+                    sums[4] -= twoCurrent * c * x4[i] * exp * Math.sin(e * x4[i]); // d/de
+                    sums[5] += twoCurrent * x4x5Squared[i]; // d/df
+                }
+            }
+
+            return sums;
+        }
     }
 }
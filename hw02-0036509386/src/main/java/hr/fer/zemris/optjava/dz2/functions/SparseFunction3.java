@@ -0,0 +1,97 @@
+package hr.fer.zemris.optjava.dz2.functions;
+
+import hr.fer.zemris.optjava.dz2.IFunction;
+import hr.fer.zemris.optjava.dz2.sparse.CSRMatrix;
+import hr.fer.zemris.optjava.dz2.sparse.SparseSystem;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * A function that represents a linear system
+ * with a sparse matrix. Unlike {@link Function3}
+ * it doesn't provide a Hesse matrix, since it would
+ * need to be stored densely.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class SparseFunction3 implements IFunction {
+
+    /**
+     * Equation that represents this system.
+     */
+    private final CSRMatrix equation;
+
+    /**
+     * Solution of the {@link #equation}.
+     */
+    private final double[] solution;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param system represented by this function.
+     */
+    public SparseFunction3(SparseSystem system) {
+        this.equation = system.getEquation();
+        this.solution = system.getSolution();
+    }
+
+    @Override
+    public int getNumberOfVariables() {
+        return equation.getColumnDimension();
+    }
+
+    /**
+     * Calculates the error for the given {@code point}.
+     *
+     * @param point used to calculate the value.
+     *
+     * @return total error of this system for the given point.
+     */
+    @Override
+    public double calculateValue(RealVector point) {
+        double[] residual = calculateResidual(point);
+        double sum = 0;
+
+        for (double current : residual) {
+            sum += current * current;
+        }
+
+        return sum;
+    }
+
+    @Override
+    public RealVector calculateGradient(RealVector point) {
+        double[] residual = calculateResidual(point);
+
+        for (int i = 0; i < residual.length; i++) {
+            residual[i] *= 2;
+        }
+
+        double[] gradient = new double[equation.getColumnDimension()];
+        equation.transposeMultiply(residual, gradient);
+
+        return new ArrayRealVector(gradient, false);
+    }
+
+    /**
+     * Calculates A*x - b for the given {@code point}.
+     *
+     * @param point used as x.
+     *
+     * @return residual of each equation.
+     */
+    private double[] calculateResidual(RealVector point) {
+        double[] x = point instanceof ArrayRealVector ? ((ArrayRealVector) point).getDataRef() : point.toArray();
+        double[] residual = new double[equation.getRowDimension()];
+
+        equation.multiply(x, residual);
+
+        for (int i = 0; i < residual.length; i++) {
+            residual[i] -= solution[i];
+        }
+
+        return residual;
+    }
+}
@@ -0,0 +1,182 @@
+package hr.fer.zemris.optjava.dz2.sparse;
+
+/**
+ * A sparse matrix kept in compressed sparse row format.
+ * Only non-zero entries are stored, so memory grows with
+ * the number of non-zero entries instead of the number of
+ * rows times the number of columns.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class CSRMatrix {
+
+    /**
+     * Number of rows in this matrix.
+     */
+    private final int rows;
+
+    /**
+     * Number of columns in this matrix.
+     */
+    private final int columns;
+
+    /**
+     * Index of the first entry of each row in {@link #columnIndices}
+     * and {@link #values}, followed by the total number of entries.
+     */
+    private final int[] rowPointers;
+
+    /**
+     * Column of each stored entry.
+     */
+    private final int[] columnIndices;
+
+    /**
+     * Value of each stored entry.
+     */
+    private final double[] values;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param rows number of rows.
+     * @param columns number of columns.
+     * @param rowPointers index of the first entry of each row, followed by the number of entries.
+     * @param columnIndices column of each entry.
+     * @param values value of each entry.
+     *
+     * @throws IllegalArgumentException if the {@code arrays} don't describe a matrix of the given size.
+     */
+    public CSRMatrix(int rows, int columns, int[] rowPointers, int[] columnIndices, double[] values) {
+        if (rowPointers.length != rows + 1) {
+            throw new IllegalArgumentException("Row pointers must have exactly one element more than there are rows.");
+        } else if (columnIndices.length != values.length || rowPointers[rows] != values.length) {
+            throw new IllegalArgumentException("Number of column indexes and values must match the row pointers.");
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Creates a matrix from entries given in coordinate format.
+     * Entries can be given in any order, entries with the same
+     * coordinates are summed when the matrix is multiplied.
+     *
+     * @param rows number of rows.
+     * @param columns number of columns.
+     * @param entryRows row of each entry.
+     * @param entryColumns column of each entry.
+     * @param entryValues value of each entry.
+     * @param count number of entries to use from the given {@code arrays}.
+     *
+     * @return a new {@code CSRMatrix} containing the given entries.
+     *
+     * @throws IndexOutOfBoundsException if an entry is outside of the matrix.
+     */
+    public static CSRMatrix fromTriplets(int rows, int columns, int[] entryRows, int[] entryColumns,
+                                         double[] entryValues, int count) {
+        int[] rowPointers = new int[rows + 1];
+
+        for (int i = 0; i < count; i++) {
+            if (entryRows[i] < 0 || entryRows[i] >= rows || entryColumns[i] < 0 || entryColumns[i] >= columns) {
+                throw new IndexOutOfBoundsException("Entry (" + entryRows[i] + ", " + entryColumns[i]
+                        + ") is outside of a " + rows + "x" + columns + " matrix.");
+            }
+
+            rowPointers[entryRows[i] + 1]++;
+        }
+
+        for (int i = 0; i < rows; i++) {
+            rowPointers[i + 1] += rowPointers[i];
+        }
+
+        int[] next = new int[rows];
+        System.arraycopy(rowPointers, 0, next, 0, rows);
+
+        int[] columnIndices = new int[count];
+        double[] values = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            int position = next[entryRows[i]]++;
+
+            columnIndices[position] = entryColumns[i];
+            values[position] = entryValues[i];
+        }
+
+        return new CSRMatrix(rows, columns, rowPointers, columnIndices, values);
+    }
+
+    /**
+     * Provides the number of rows.
+     *
+     * @return number of rows.
+     */
+    public int getRowDimension() {
+        return rows;
+    }
+
+    /**
+     * Provides the number of columns.
+     *
+     * @return number of columns.
+     */
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /**
+     * Provides the number of stored entries.
+     *
+     * @return number of stored entries.
+     */
+    public int getNonZeroCount() {
+        return values.length;
+    }
+
+    /**
+     * Calculates A*x and stores the result in the given {@code array}.
+     *
+     * @param x vector with {@link #columns} elements.
+     * @param destination vector with {@link #rows} elements to be filled with the result.
+     */
+    public void multiply(double[] x, double[] destination) {
+        for (int i = 0; i < rows; i++) {
+            double sum = 0;
+
+            for (int k = rowPointers[i], end = rowPointers[i + 1]; k < end; k++) {
+                sum += values[k] * x[columnIndices[k]];
+            }
+
+            destination[i] = sum;
+        }
+    }
+
+    /**
+     * Calculates A^T*x and stores the result in the given {@code array}.
+     *
+     * @param x vector with {@link #rows} elements.
+     * @param destination vector with {@link #columns} elements to be filled with the result.
+     */
+    public void transposeMultiply(double[] x, double[] destination) {
+        for (int j = 0; j < columns; j++) {
+            destination[j] = 0;
+        }
+
+        for (int i = 0; i < rows; i++) {
+            double current = x[i];
+
+            if (current == 0) {
+                continue;
+            }
+
+            for (int k = rowPointers[i], end = rowPointers[i + 1]; k < end; k++) {
+                destination[columnIndices[k]] += values[k] * current;
+            }
+        }
+    }
+}
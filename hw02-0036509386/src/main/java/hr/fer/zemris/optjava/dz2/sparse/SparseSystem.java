@@ -0,0 +1,149 @@
+package hr.fer.zemris.optjava.dz2.sparse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A linear system A*x = b whose matrix is kept in a {@link CSRMatrix}.
+ * <p>
+ * Systems are read from files in coordinate format. The first line
+ * that isn't blank or a comment starting with {@code #} is of form
+ * {@code [rows, columns]}. Every other line is of form {@code [i, j, value]}
+ * with zero-based indexes. Entries with {@code j} equal to {@code columns}
+ * belong to the vector b, just like the last column in the dense format.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class SparseSystem {
+
+    /**
+     * Initial capacity of the buffers used while reading entries.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Matrix A of this system.
+     */
+    private final CSRMatrix equation;
+
+    /**
+     * Vector b of this system.
+     */
+    private final double[] solution;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param equation matrix A of the system.
+     * @param solution vector b of the system.
+     *
+     * @throws IllegalArgumentException if the dimensions don't match.
+     */
+    public SparseSystem(CSRMatrix equation, double[] solution) {
+        if (equation.getRowDimension() != solution.length) {
+            throw new IllegalArgumentException("Vector b must have an element for each row of the matrix.");
+        }
+
+        this.equation = equation;
+        this.solution = solution;
+    }
+
+    /**
+     * Reads a system from the given {@code file} line by line,
+     * without keeping the whole file in memory.
+     *
+     * @param file containing the system in coordinate format.
+     *
+     * @return a new {@code SparseSystem} read from the given {@code file}.
+     *
+     * @throws IOException if the file couldn't be read.
+     * @throws IllegalArgumentException if the file isn't in coordinate format.
+     */
+    public static SparseSystem load(Path file) throws IOException {
+        int rows = -1, columns = -1, count = 0;
+        double[] solution = null;
+
+        int[] entryRows = new int[INITIAL_CAPACITY];
+        int[] entryColumns = new int[INITIAL_CAPACITY];
+        double[] entryValues = new double[INITIAL_CAPACITY];
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.replace("[", "").replace("]", "").trim().split(",\\s*");
+
+                if (rows < 0) {
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("First line must be of form [rows, columns].");
+                    }
+
+                    rows = Integer.parseInt(parts[0]);
+                    columns = Integer.parseInt(parts[1]);
+                    solution = new double[rows];
+                    continue;
+                }
+
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Entries must be of form [i, j, value], got: " + line);
+                }
+
+                int i = Integer.parseInt(parts[0]);
+                int j = Integer.parseInt(parts[1]);
+                double value = Double.parseDouble(parts[2]);
+
+                if (j == columns) {
+                    solution[i] += value;
+                    continue;
+                }
+
+                if (count == entryValues.length) {
+                    int capacity = count * 2;
+
+                    entryRows = Arrays.copyOf(entryRows, capacity);
+                    entryColumns = Arrays.copyOf(entryColumns, capacity);
+                    entryValues = Arrays.copyOf(entryValues, capacity);
+                }
+
+                entryRows[count] = i;
+                entryColumns[count] = j;
+                entryValues[count] = value;
+                count++;
+            }
+        }
+
+        if (rows < 0) {
+            throw new IllegalArgumentException("File doesn't contain a system.");
+        }
+
+        CSRMatrix equation = CSRMatrix.fromTriplets(rows, columns, entryRows, entryColumns, entryValues, count);
+
+        return new SparseSystem(equation, solution);
+    }
+
+    /**
+     * Provides the matrix A.
+     *
+     * @return matrix A.
+     */
+    public CSRMatrix getEquation() {
+        return equation;
+    }
+
+    /**
+     * Provides the vector b.
+     *
+     * @return vector b.
+     */
+    public double[] getSolution() {
+        return solution;
+    }
+}
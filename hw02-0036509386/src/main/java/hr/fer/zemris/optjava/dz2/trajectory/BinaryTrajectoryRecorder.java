@@ -0,0 +1,221 @@
+package hr.fer.zemris.optjava.dz2.trajectory;
+
+import org.apache.commons.math3.linear.RealVector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link TrajectoryRecorder} that writes iterations to a binary file.
+ * <p>
+ * Iterations are recorded into one of two preallocated buffers. When a
+ * buffer is full it is handed to a background thread which writes it while
+ * the algorithm keeps recording into the other buffer.
+ * <p>
+ * The file starts with the number of variables as an {@code int}, followed
+ * by an {@code int} iteration index, the point's {@code double} values,
+ * the function's value and the gradient norm for every iteration.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class BinaryTrajectoryRecorder implements TrajectoryRecorder {
+
+    /**
+     * Number of iterations kept in a single buffer.
+     */
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Number of values kept for each iteration besides the point.
+     */
+    private static final int EXTRA_VALUES = 2;
+
+    /**
+     * Number of variables in each point.
+     */
+    private final int dimension;
+
+    /**
+     * Used to write to the file.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Used to write full buffers in the background.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * Buffer currently being filled.
+     */
+    private Buffer current;
+
+    /**
+     * Buffer used after {@link #current} is handed to the {@link #writer}.
+     */
+    private Buffer spare;
+
+    /**
+     * Last submitted write, {@code null} if nothing was submitted.
+     */
+    private Future<?> pending;
+
+    /**
+     * Default constructor that opens the file.
+     *
+     * @param file where iterations are written.
+     * @param dimension number of variables in each point.
+     *
+     * @throws IOException if the file couldn't be opened.
+     */
+    public BinaryTrajectoryRecorder(Path file, int dimension) throws IOException {
+        this.dimension = dimension;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "trajectory-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.current = new Buffer(dimension);
+        this.spare = new Buffer(dimension);
+
+        out.writeInt(dimension);
+    }
+
+    @Override
+    public void record(int iteration, RealVector point, double value, double gradientNorm) {
+        int offset = current.size * (dimension + EXTRA_VALUES);
+
+        current.iterations[current.size] = iteration;
+
+        for (int i = 0; i < dimension; i++) {
+            current.entries[offset + i] = point.getEntry(i);
+        }
+
+        current.entries[offset + dimension] = value;
+        current.entries[offset + dimension + 1] = gradientNorm;
+
+        if (++current.size == BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            awaitPending();
+        } finally {
+            writer.shutdown();
+            out.close();
+        }
+    }
+
+    /**
+     * Hands {@link #current} to the {@link #writer} and continues with {@link #spare}
+     * once its previous write has finished.
+     */
+    private void flush() {
+        if (current.size == 0) {
+            return;
+        }
+
+        awaitPending();
+
+        Buffer full = current;
+        current = spare;
+        spare = full;
+
+        pending = writer.submit(() -> {
+            write(full);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for the last submitted write to finish.
+     *
+     * @throws UncheckedIOException if the write failed.
+     */
+    private void awaitPending() {
+        if (pending == null) {
+            return;
+        }
+
+        try {
+            pending.get();
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exc) {
+            if (exc.getCause() instanceof IOException) {
+                throw new UncheckedIOException("Couldn't write trajectory.", (IOException) exc.getCause());
+            }
+
+            throw new IllegalStateException("Couldn't write trajectory.", exc.getCause());
+        } finally {
+            pending = null;
+        }
+    }
+
+    /**
+     * Writes the given {@code buffer} to the file and empties it.
+     *
+     * @param buffer being written.
+     *
+     * @throws IOException if writing fails.
+     */
+    private void write(Buffer buffer) throws IOException {
+        for (int k = 0; k < buffer.size; k++) {
+            int offset = k * (dimension + EXTRA_VALUES);
+
+            out.writeInt(buffer.iterations[k]);
+
+            for (int i = 0; i < dimension + EXTRA_VALUES; i++) {
+                out.writeDouble(buffer.entries[offset + i]);
+            }
+        }
+
+        out.flush();
+        buffer.size = 0;
+    }
+
+    /**
+     * A preallocated block of recorded iterations.
+     */
+    private static class Buffer {
+
+        /**
+         * Index of each iteration.
+         */
+        private final int[] iterations;
+
+        /**
+         * Point, value and gradient norm of each iteration.
+         */
+        private final double[] entries;
+
+        /**
+         * Number of iterations in this buffer.
+         */
+        private int size;
+
+        /**
+         * Default constructor that allocates the {@code arrays}.
+         *
+         * @param dimension number of variables in each point.
+         */
+        Buffer(int dimension) {
+            iterations = new int[BUFFER_SIZE];
+            entries = new double[BUFFER_SIZE * (dimension + EXTRA_VALUES)];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package hr.fer.zemris.optjava.dz2.trajectory;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.io.PrintStream;
+
+/**
+ * A {@link TrajectoryRecorder} that keeps the last {@link #capacity}
+ * iterations in a preallocated {@code array}, so recording
+ * doesn't allocate or print anything.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class RingBufferTrajectoryRecorder implements TrajectoryRecorder {
+
+    /**
+     * Number of values kept for each iteration besides the point.
+     */
+    private static final int EXTRA_VALUES = 2;
+
+    /**
+     * Maximum number of iterations kept.
+     */
+    private final int capacity;
+
+    /**
+     * Number of variables in each point.
+     */
+    private final int dimension;
+
+    /**
+     * Index of each recorded iteration.
+     */
+    private final int[] iterations;
+
+    /**
+     * Point, value and gradient norm of each recorded iteration.
+     */
+    private final double[] entries;
+
+    /**
+     * Total number of recorded iterations.
+     */
+    private long recorded;
+
+    /**
+     * Default constructor that allocates the buffer.
+     *
+     * @param capacity maximum number of iterations kept.
+     * @param dimension number of variables in each point.
+     */
+    public RingBufferTrajectoryRecorder(int capacity, int dimension) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least one.");
+        }
+
+        this.capacity = capacity;
+        this.dimension = dimension;
+        this.iterations = new int[capacity];
+        this.entries = new double[capacity * (dimension + EXTRA_VALUES)];
+    }
+
+    @Override
+    public void record(int iteration, RealVector point, double value, double gradientNorm) {
+        int slot = (int) (recorded % capacity);
+        int offset = slot * (dimension + EXTRA_VALUES);
+
+        iterations[slot] = iteration;
+
+        for (int i = 0; i < dimension; i++) {
+            entries[offset + i] = point.getEntry(i);
+        }
+
+        entries[offset + dimension] = value;
+        entries[offset + dimension + 1] = gradientNorm;
+        recorded++;
+    }
+
+    /**
+     * Provides the number of iterations currently kept.
+     *
+     * @return number of iterations kept.
+     */
+    public int size() {
+        return (int) Math.min(recorded, capacity);
+    }
+
+    /**
+     * Prints every kept point, from the oldest to the newest,
+     * in the same format used by {@link RealVector#toString()}.
+     *
+     * @param out used to print the points.
+     */
+    public void print(PrintStream out) {
+        long first = recorded - size();
+        double[] point = new double[dimension];
+
+        for (long k = first; k < recorded; k++) {
+            int offset = (int) (k % capacity) * (dimension + EXTRA_VALUES);
+
+            System.arraycopy(entries, offset, point, 0, dimension);
+            out.println(new ArrayRealVector(point, false));
+        }
+    }
+
+    @Override
+    public void close() {}
+}
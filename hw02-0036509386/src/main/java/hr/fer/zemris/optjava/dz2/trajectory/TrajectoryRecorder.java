@@ -0,0 +1,25 @@
+package hr.fer.zemris.optjava.dz2.trajectory;
+
+import org.apache.commons.math3.linear.RealVector;
+
+import java.io.Closeable;
+
+/**
+ * An interface used to record the points visited
+ * by algorithms in {@link hr.fer.zemris.optjava.dz2.NumOptAlgorithms}.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface TrajectoryRecorder extends Closeable {
+
+    /**
+     * Records a single iteration.
+     *
+     * @param iteration index of the iteration.
+     * @param point reached in the iteration.
+     * @param value of the function in {@code point}.
+     * @param gradientNorm norm of the gradient in {@code point}.
+     */
+    void record(int iteration, RealVector point, double value, double gradientNorm);
+}
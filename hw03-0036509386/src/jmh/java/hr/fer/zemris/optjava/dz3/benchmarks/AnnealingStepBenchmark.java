@@ -0,0 +1,182 @@
+package hr.fer.zemris.optjava.dz3.benchmarks;
+
+import hr.fer.zemris.optjava.dz3.algorithms.SimulatedAnnealing;
+import hr.fer.zemris.optjava.dz3.checkpoint.AnnealingState;
+import hr.fer.zemris.optjava.dz3.cooling.GeometricTempSchedule;
+import hr.fer.zemris.optjava.dz3.decoders.IDecoder;
+import hr.fer.zemris.optjava.dz3.decoders.NaturalBinaryDecoder;
+import hr.fer.zemris.optjava.dz3.decoders.PassThroughDecoder;
+import hr.fer.zemris.optjava.dz3.functions.Function4;
+import hr.fer.zemris.optjava.dz3.functions.IFunction;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.BitvectorNeighbourhood;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.DoubleArrayUnifNeighbourhood;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.INeighbourhood;
+import hr.fer.zemris.optjava.dz3.solutions.BitvectorSolution;
+import hr.fer.zemris.optjava.dz3.solutions.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete {@link SimulatedAnnealing} steps as run by
+ * {@link hr.fer.zemris.optjava.dz3.RegresijaSustava}, reported per step.
+ * Comparing the result with {@link DecoderBenchmark},
+ * {@link NeighbourhoodBenchmark} and {@link Function4Benchmark}
+ * shows which component dominates a step.
+ * <p>
+ * Build with {@code mvn -P jmh package} and run with
+ * {@code java -jar target/benchmarks.jar -prof gc} to also
+ * report bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ *
+ * @author Mateo Imbrišak
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnealingStepBenchmark {
+
+    /**
+     * Number of steps in a single invocation.
+     */
+    private static final int STEPS = 1000;
+
+    /**
+     * Fixed temperature of the measured steps.
+     */
+    private static final double TEMPERATURE = 1;
+
+    /**
+     * Decimal or binary with the given number of bits per variable.
+     */
+    @Param({"decimal", "binary:8", "binary:16", "binary:32"})
+    public String representation;
+
+    /**
+     * Number of samples.
+     */
+    @Param({"20", "100000"})
+    public int rows;
+
+    /**
+     * Chain being advanced.
+     */
+    private Chain<?> chain;
+
+    /**
+     * Creates the chain with a random initial solution.
+     */
+    @Setup
+    public void setup() {
+        Function4 function = BenchmarkData.function(rows);
+        Random rand = new Random(42);
+
+        if (representation.equals("decimal")) {
+            DoubleArraySolution start = new DoubleArraySolution(BenchmarkData.NUMBER_OF_CONSTANTS);
+            start.randomize(rand, -10, 10);
+
+            chain = new Chain<>(new PassThroughDecoder(), new DoubleArrayUnifNeighbourhood(new double[] {-1, 1}, rand),
+                    function, start, rand);
+        } else {
+            int bits = Integer.parseInt(representation.replace("binary:", ""));
+            int totalBits = bits * BenchmarkData.NUMBER_OF_CONSTANTS;
+            BitvectorSolution start = new BitvectorSolution(totalBits);
+            start.randomize(rand);
+
+            chain = new Chain<>(new NaturalBinaryDecoder(-10, 10, bits, totalBits), new BitvectorNeighbourhood(rand),
+                    function, start, rand);
+        }
+    }
+
+    /**
+     * Performs {@link #STEPS} annealing steps.
+     *
+     * @return current solution.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public SingleObjectiveSolution step() {
+        return chain.advance();
+    }
+
+    /**
+     * An annealing chain that continues from its last solution.
+     *
+     * @param <T> type of solution used.
+     */
+    private static class Chain<T extends SingleObjectiveSolution> {
+
+        /**
+         * Used to decode solutions.
+         */
+        private final IDecoder<T> decoder;
+
+        /**
+         * Used to generate neighbours.
+         */
+        private final INeighbourhood<T> neighbourhood;
+
+        /**
+         * Function being minimised.
+         */
+        private final IFunction function;
+
+        /**
+         * Used to generate random values.
+         */
+        private final Random rand;
+
+        /**
+         * Current solution.
+         */
+        private T current;
+
+        /**
+         * Default constructor that assigns all values.
+         *
+         * @param decoder used to decode solutions.
+         * @param neighbourhood used to generate neighbours.
+         * @param function being minimised.
+         * @param start initial solution.
+         * @param rand used to generate random values.
+         */
+        Chain(IDecoder<T> decoder, INeighbourhood<T> neighbourhood, IFunction function, T start, Random rand) {
+            this.decoder = decoder;
+            this.neighbourhood = neighbourhood;
+            this.function = function;
+            this.current = start;
+            this.rand = rand;
+        }
+
+        /**
+         * Performs {@link #STEPS} steps from the current solution.
+         *
+         * @return the new current solution.
+         */
+        T advance() {
+            AnnealingState<T> state = new AnnealingState<>(current,
+                    new GeometricTempSchedule(1, TEMPERATURE, STEPS, 1), rand);
+
+            new SimulatedAnnealing<>(decoder, neighbourhood, function, true, null, state).run();
+            current = state.solution;
+
+            return current;
+        }
+    }
+}
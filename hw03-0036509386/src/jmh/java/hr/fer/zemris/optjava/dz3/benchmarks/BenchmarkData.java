@@ -0,0 +1,70 @@
+package hr.fer.zemris.optjava.dz3.benchmarks;
+
+import hr.fer.zemris.optjava.dz3.functions.Function4;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic samples for benchmarks, drawn from the same
+ * model as the real readings so the values stay in a realistic range.
+ *
+ * @author Mateo Imbrišak
+ */
+
+final class BenchmarkData {
+
+    /**
+     * Number of constants of {@link Function4}.
+     */
+    static final int NUMBER_OF_CONSTANTS = 6;
+
+    /**
+     * Number of variables in a single sample.
+     */
+    private static final int NUMBER_OF_VARIABLES = 5;
+
+    /**
+     * Constants used to generate the results.
+     */
+    private static final double[] CONSTANTS = {7, -3, 2, 1, -3, 3};
+
+    /**
+     * Seed used so every benchmark sees the same samples.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private BenchmarkData() {}
+
+    /**
+     * Creates a {@link Function4} over the given number of random samples.
+     *
+     * @param rows number of samples.
+     *
+     * @return function over the samples.
+     */
+    static Function4 function(int rows) {
+        Random rand = new Random(SEED);
+        double[][] variables = new double[rows][NUMBER_OF_VARIABLES];
+        double[] results = new double[rows];
+        double[] c = CONSTANTS;
+
+        for (int i = 0; i < rows; i++) {
+            double[] x = variables[i];
+
+            for (int j = 0; j < NUMBER_OF_VARIABLES; j++) {
+                x[j] = rand.nextDouble() * 4 - 2;
+            }
+
+            results[i] = c[0] * x[0] + c[1] * x[0] * x[0] * x[0] * x[1]
+                    + c[2] * Math.exp(c[3] * x[2]) * (1 + Math.cos(c[4] * x[3]))
+                    + c[5] * x[3] * x[4] * x[4] + rand.nextGaussian() * 0.1;
+        }
+
+        return new Function4(new Array2DRowRealMatrix(variables, false), new ArrayRealVector(results, false));
+    }
+}
@@ -0,0 +1,99 @@
+package hr.fer.zemris.optjava.dz3.benchmarks;
+
+import hr.fer.zemris.optjava.dz3.decoders.BitvectorDecoder;
+import hr.fer.zemris.optjava.dz3.decoders.GrayCodeDecoder;
+import hr.fer.zemris.optjava.dz3.decoders.NaturalBinaryDecoder;
+import hr.fer.zemris.optjava.dz3.solutions.BitvectorSolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding of a bitvector with six variables.
+ *
+ * @author Mateo Imbrišak
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecoderBenchmark {
+
+    /**
+     * Number of bits per variable.
+     */
+    @Param({"8", "16", "32"})
+    public int bits;
+
+    /**
+     * Natural binary or Gray code.
+     */
+    @Param({"natural", "gray"})
+    public String code;
+
+    /**
+     * Decoder being measured.
+     */
+    private BitvectorDecoder decoder;
+
+    /**
+     * Solution being decoded.
+     */
+    private BitvectorSolution solution;
+
+    /**
+     * Buffer the solution is decoded into.
+     */
+    private double[] destination;
+
+    /**
+     * Creates the decoder and a random solution.
+     */
+    @Setup
+    public void setup() {
+        int totalBits = bits * BenchmarkData.NUMBER_OF_CONSTANTS;
+
+        decoder = code.equals("gray")
+                ? new GrayCodeDecoder(-10, 10, bits, totalBits)
+                : new NaturalBinaryDecoder(-10, 10, bits, totalBits);
+        solution = new BitvectorSolution(totalBits);
+        solution.randomize(new Random(42));
+        destination = new double[BenchmarkData.NUMBER_OF_CONSTANTS];
+    }
+
+    /**
+     * Decodes into a new array.
+     *
+     * @return decoded solution.
+     */
+    @Benchmark
+    public double[] decode() {
+        return decoder.decode(solution);
+    }
+
+    /**
+     * Decodes into a reused array.
+     *
+     * @return decoded solution.
+     */
+    @Benchmark
+    public double[] decodeInto() {
+        decoder.decode(solution, destination);
+
+        return destination;
+    }
+}
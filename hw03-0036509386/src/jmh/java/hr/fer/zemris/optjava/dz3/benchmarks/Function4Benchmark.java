@@ -0,0 +1,110 @@
+package hr.fer.zemris.optjava.dz3.benchmarks;
+
+import hr.fer.zemris.optjava.dz3.functions.Function4;
+import hr.fer.zemris.optjava.dz3.functions.IDeltaEvaluator;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.VariableMove;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full and delta evaluation of {@link Function4}.
+ *
+ * @author Mateo Imbrišak
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Function4Benchmark {
+
+    /**
+     * Number of samples.
+     */
+    @Param({"20", "1000", "100000", "1000000"})
+    public int rows;
+
+    /**
+     * Function being measured.
+     */
+    private Function4 function;
+
+    /**
+     * Point at which the function is evaluated.
+     */
+    private double[] point;
+
+    /**
+     * Evaluator used to score moves.
+     */
+    private IDeltaEvaluator<VariableMove> evaluator;
+
+    /**
+     * Moves scored by the evaluator, one for each constant.
+     */
+    private VariableMove[] moves;
+
+    /**
+     * Index of the next move.
+     */
+    private int next;
+
+    /**
+     * Creates the function, point and moves.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(42);
+
+        function = BenchmarkData.function(rows);
+        point = new double[BenchmarkData.NUMBER_OF_CONSTANTS];
+
+        for (int i = 0; i < point.length; i++) {
+            point[i] = rand.nextDouble() * 4 - 2;
+        }
+
+        evaluator = function.newEvaluator(point);
+        moves = new VariableMove[BenchmarkData.NUMBER_OF_CONSTANTS];
+
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = new VariableMove(i, rand.nextDouble() - 0.5);
+        }
+    }
+
+    /**
+     * Evaluates the function at a single point.
+     *
+     * @return value at the point.
+     */
+    @Benchmark
+    public double valueAt() {
+        return function.valueAt(point);
+    }
+
+    /**
+     * Scores a move of each constant in turn without accepting it.
+     *
+     * @return change of the value.
+     */
+    @Benchmark
+    public double delta() {
+        VariableMove move = moves[next];
+        next = (next + 1) % moves.length;
+
+        return evaluator.delta(move);
+    }
+}
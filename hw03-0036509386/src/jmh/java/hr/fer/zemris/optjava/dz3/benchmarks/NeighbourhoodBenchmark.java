@@ -0,0 +1,123 @@
+package hr.fer.zemris.optjava.dz3.benchmarks;
+
+import hr.fer.zemris.optjava.dz3.neighbourhoods.BitvectorNeighbourhood;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.DoubleArrayUnifNeighbourhood;
+import hr.fer.zemris.optjava.dz3.solutions.BitvectorSolution;
+import hr.fer.zemris.optjava.dz3.solutions.DoubleArraySolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures neighbour generation, both as a new solution
+ * and as an in-place change that is then reverted.
+ *
+ * @author Mateo Imbrišak
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighbourhoodBenchmark {
+
+    /**
+     * Number of bits per variable of the bitvector solution.
+     */
+    @Param({"8", "16", "32"})
+    public int bits;
+
+    /**
+     * Bitvector neighbourhood being measured.
+     */
+    private BitvectorNeighbourhood bitvectorNeighbourhood;
+
+    /**
+     * Double array neighbourhood being measured.
+     */
+    private DoubleArrayUnifNeighbourhood doubleArrayNeighbourhood;
+
+    /**
+     * Bitvector solution whose neighbours are generated.
+     */
+    private BitvectorSolution bitvector;
+
+    /**
+     * Double array solution whose neighbours are generated.
+     */
+    private DoubleArraySolution doubleArray;
+
+    /**
+     * Creates the neighbourhoods and random solutions.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(42);
+
+        bitvectorNeighbourhood = new BitvectorNeighbourhood(rand);
+        doubleArrayNeighbourhood = new DoubleArrayUnifNeighbourhood(new double[] {-1, 1}, rand);
+        bitvector = new BitvectorSolution(bits * BenchmarkData.NUMBER_OF_CONSTANTS);
+        bitvector.randomize(rand);
+        doubleArray = new DoubleArraySolution(BenchmarkData.NUMBER_OF_CONSTANTS);
+        doubleArray.randomize(rand, -10, 10);
+    }
+
+    /**
+     * Creates a new bitvector neighbour.
+     *
+     * @return the neighbour.
+     */
+    @Benchmark
+    public BitvectorSolution bitvectorNeighbour() {
+        return bitvectorNeighbourhood.randomNeighbour(bitvector);
+    }
+
+    /**
+     * Changes the bitvector solution in place and reverts the change.
+     *
+     * @return the solution.
+     */
+    @Benchmark
+    public BitvectorSolution bitvectorMutateUndo() {
+        bitvectorNeighbourhood.mutate(bitvector);
+        bitvectorNeighbourhood.undo(bitvector);
+
+        return bitvector;
+    }
+
+    /**
+     * Creates a new double array neighbour.
+     *
+     * @return the neighbour.
+     */
+    @Benchmark
+    public DoubleArraySolution doubleArrayNeighbour() {
+        return doubleArrayNeighbourhood.randomNeighbour(doubleArray);
+    }
+
+    /**
+     * Changes the double array solution in place and reverts the change.
+     *
+     * @return the solution.
+     */
+    @Benchmark
+    public DoubleArraySolution doubleArrayMutateUndo() {
+        doubleArrayNeighbourhood.mutate(doubleArray);
+        doubleArrayNeighbourhood.undo(doubleArray);
+
+        return doubleArray;
+    }
+}
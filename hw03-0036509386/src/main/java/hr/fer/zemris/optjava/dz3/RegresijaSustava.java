@@ -1,30 +1,40 @@
 package hr.fer.zemris.optjava.dz3;
 
+import hr.fer.zemris.optjava.dz3.algorithms.DeltaSimulatedAnnealing;
 import hr.fer.zemris.optjava.dz3.algorithms.IOptAlgorithm;
+import hr.fer.zemris.optjava.dz3.algorithms.ParallelTempering;
+import hr.fer.zemris.optjava.dz3.algorithms.PopulationSimulatedAnnealing;
 import hr.fer.zemris.optjava.dz3.algorithms.SimulatedAnnealing;
+import hr.fer.zemris.optjava.dz3.checkpoint.AnnealingState;
+import hr.fer.zemris.optjava.dz3.checkpoint.Checkpointer;
+import hr.fer.zemris.optjava.dz3.checkpoint.Representation;
+import hr.fer.zemris.optjava.dz3.cooling.AcceptanceRateTempSchedule;
 import hr.fer.zemris.optjava.dz3.cooling.GeometricTempSchedule;
 import hr.fer.zemris.optjava.dz3.cooling.ITempSchedule;
+import hr.fer.zemris.optjava.dz3.cooling.LamDelosmeTempSchedule;
+import hr.fer.zemris.optjava.dz3.decoders.GrayCodeDecoder;
 import hr.fer.zemris.optjava.dz3.decoders.IDecoder;
 import hr.fer.zemris.optjava.dz3.decoders.NaturalBinaryDecoder;
 import hr.fer.zemris.optjava.dz3.decoders.PassThroughDecoder;
 import hr.fer.zemris.optjava.dz3.functions.Function4;
 import hr.fer.zemris.optjava.dz3.functions.IFunction;
+import hr.fer.zemris.optjava.dz3.functions.PrijenosnaDataset;
 import hr.fer.zemris.optjava.dz3.neighbourhoods.BitvectorNeighbourhood;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.DoubleArrayMoveNeighbourhood;
 import hr.fer.zemris.optjava.dz3.neighbourhoods.DoubleArrayUnifNeighbourhood;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.INeighbourhood;
+import hr.fer.zemris.optjava.dz3.progress.SamplingProgressListener;
 import hr.fer.zemris.optjava.dz3.solutions.BitvectorSolution;
 import hr.fer.zemris.optjava.dz3.solutions.DoubleArraySolution;
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.ArrayRealVector;
-import org.apache.commons.math3.linear.RealMatrix;
-import org.apache.commons.math3.linear.RealVector;
+import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A program that attempts to find
@@ -36,11 +46,6 @@ import java.util.Random;
 
 public class RegresijaSustava {
 
-    /**
-     * Keeps the number of variables in the system.
-     */
-    private static final int NUMBER_OF_VARIABLES = 5;
-
     /**
      * Number of constants in the system.
      */
@@ -66,6 +71,86 @@ public class RegresijaSustava {
      */
     private static final double MAX_VALUE = 10;
 
+    /**
+     * Alpha used for geometric cooling.
+     */
+    private static final double ALPHA = 0.995;
+
+    /**
+     * Initial temperature of simulated annealing and the
+     * hottest temperature of parallel tempering.
+     */
+    private static final double INITIAL_TEMPERATURE = 100;
+
+    /**
+     * Coldest temperature of parallel tempering, close to the
+     * final temperature reached by geometric cooling.
+     */
+    private static final double MIN_TEMPERATURE = 0.05;
+
+    /**
+     * Number of iterations with a single temperature, or steps
+     * between exchanges in parallel tempering.
+     */
+    private static final int INNER_LOOP = 1000;
+
+    /**
+     * Number of temperature changes, or exchanges in parallel tempering.
+     */
+    private static final int OUTER_LOOP = 1500;
+
+    /**
+     * Default number of iterations between two progress reports.
+     */
+    private static final long PROGRESS_INTERVAL = 10_000;
+
+    /**
+     * Number of outer loops between two synchronizations of population annealing.
+     */
+    private static final int SYNC_INTERVAL = 10;
+
+    /**
+     * Number of outer loops between two checkpoints.
+     */
+    private static final int CHECKPOINT_INTERVAL = 50;
+
+    /**
+     * Quality factor of the Lam-Delosme schedule.
+     */
+    private static final double LAMBDA = 0.1;
+
+    /**
+     * Gain of the acceptance rate schedule.
+     */
+    private static final double GAIN = 0.5;
+
+    /**
+     * Acceptance ratio targeted at the start of the run.
+     */
+    private static final double INITIAL_RATE = 0.5;
+
+    /**
+     * Acceptance ratio targeted at the end of the run.
+     */
+    private static final double FINAL_RATE = 1e-5;
+
+    /**
+     * Number of inner loops without improvement before
+     * an adaptive schedule raises the temperature.
+     */
+    private static final int STAGNATION_LIMIT = 200;
+
+    /**
+     * Number of inner loops without improvement, reheats
+     * included, before an adaptive schedule stops the run.
+     */
+    private static final int FREEZE_LIMIT = 400;
+
+    /**
+     * Cooling schedule used if none is selected in the command line.
+     */
+    private static final String DEFAULT_SCHEDULE = "geometric";
+
     /**
      * Don't let anyone instantiate this class.
      */
@@ -74,100 +159,333 @@ public class RegresijaSustava {
     /**
      * Used to start the program.
      *
-     * @param args three arguments
-     *             grad or newton to select the algorithm
-     *             maximum number of iterations
+     * @param args at least two arguments
      *             path to the file containing the readings
+     *             decimal, binary:n or gray:n to select the solution representation
+     *             optional tempering:n to use parallel tempering with n replicas
+     *             optional delta to score moves incrementally, decimal only
+     *             optional progress:n to report progress at most every n iterations
+     *             optional schedule:geometric, schedule:lam or schedule:acceptance to select cooling
+     *             optional population:n to run n annealing chains in parallel, sharing the budget
+     *             optional checkpoint:path to periodically save simulated annealing to a file
+     *             optional resume:path to continue simulated annealing from a saved file
      */
     public static void main(String[] args) {
-        if (args.length != 2) {
-            System.err.println("Program takes exactly two arguments.");
+        if (args.length < 2) {
+            System.err.println("Program takes at least two arguments.");
             return;
         }
 
-        List<String[]> values = new ArrayList<>();
+        Options options = new Options();
 
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(args[0]));
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("tempering:")) {
+                options.replicas = Integer.parseInt(args[i].replace("tempering:", ""));
 
-            for (String line : lines) {
-                if (line.isBlank() || line.startsWith("#")) {
-                    continue;
+                if (options.replicas < 2) {
+                    System.out.println("Parallel tempering needs at least two replicas.");
+                    return;
                 }
+            } else if (args[i].startsWith("population:")) {
+                options.chains = Integer.parseInt(args[i].replace("population:", ""));
 
-                line = line.replace("[", "").replace("]", "");
-                values.add(line.split(",\\s+"));
+                if (options.chains < 1 || options.chains > OUTER_LOOP) {
+                    System.out.println("Number of chains must be between 1 and " + OUTER_LOOP + ".");
+                    return;
+                }
+            } else if (args[i].equals("delta")) {
+                options.delta = true;
+            } else if (args[i].startsWith("schedule:")) {
+                options.schedule = args[i].replace("schedule:", "");
+
+                if (createSchedule(options.schedule, 1) == null) {
+                    System.out.println("Unknown schedule: " + options.schedule);
+                    return;
+                }
+            } else if (args[i].startsWith("progress:")) {
+                options.progress = Long.parseLong(args[i].replace("progress:", ""));
+
+                if (options.progress < 1) {
+                    System.out.println("Progress interval must be positive.");
+                    return;
+                }
+            } else if (args[i].startsWith("checkpoint:")) {
+                options.checkpoint = Paths.get(args[i].replace("checkpoint:", ""));
+            } else if (args[i].startsWith("resume:")) {
+                options.resume = Paths.get(args[i].replace("resume:", ""));
+            } else {
+                System.out.println("Unknown option: " + args[i]);
+                return;
             }
+        }
+
+        boolean parallel = options.replicas > 1 || options.chains > 1;
+
+        if ((options.checkpoint != null || options.resume != null) && (options.delta || parallel)) {
+            System.out.println("Checkpoints are only supported for simulated annealing.");
+            return;
+        } else if (options.replicas > 1 && options.chains > 1) {
+            System.out.println("Parallel tempering can't be combined with population annealing.");
+            return;
+        }
+
+        PrijenosnaDataset dataset;
+
+        try {
+            dataset = PrijenosnaDataset.load(Paths.get(args[0]));
         } catch (IOException exc) {
             System.out.println("Couldn't open file.");
             return;
         }
 
-        int size = values.size();
+        Function4 function = new Function4(dataset);
 
-        double[][] variables = new double[size][NUMBER_OF_VARIABLES];
-        double[] results = new double[size];
+        if (options.delta) {
+            if (!args[1].toLowerCase().equals("decimal")) {
+                System.out.println("Delta evaluation is only supported for decimal representation.");
+            } else if (parallel) {
+                System.out.println("Delta evaluation can't be combined with parallel algorithms.");
+            } else {
+                solveDelta(function, options);
+            }
+        } else if (args[1].toLowerCase().equals("decimal")) {
+            solve(function, options, new Representation("decimal", 0, MIN_VALUE, MAX_VALUE),
+                    PassThroughDecoder::new,
+                    rand -> new DoubleArrayUnifNeighbourhood(new double[] {-1, 1}, rand),
+                    () -> {
+                        DoubleArraySolution solution = new DoubleArraySolution(NUMBER_OF_CONSTANTS);
+                        solution.randomize(new Random(), MIN_VALUE, MAX_VALUE);
+                        return solution;
+                    });
+        } else if (args[1].toLowerCase().startsWith("binary:") || args[1].toLowerCase().startsWith("gray:")) {
+            boolean gray = args[1].toLowerCase().startsWith("gray:");
+            String value = args[1].substring(args[1].indexOf(':') + 1);
 
-        for (int i = 0; i < size; i++) {
-            String[] valueArray = values.get(i);
+            int bit = Integer.parseInt(value);
 
-            for (int j = 0; j < NUMBER_OF_VARIABLES; j++) {
-                variables[i][j] = Double.parseDouble(valueArray[j]);
+            if (bit < MIN_BINARY || bit > MAX_BINARY) {
+                System.out.println("Number of bits must be between " + MIN_BINARY + " and " + MAX_BINARY + ".");
+                return;
             }
 
-            results[i] = Double.parseDouble(valueArray[NUMBER_OF_VARIABLES]);
+            solve(function, options, new Representation(gray ? "gray" : "binary", bit, MIN_VALUE, MAX_VALUE),
+                    () -> gray
+                            ? new GrayCodeDecoder(MIN_VALUE, MAX_VALUE, bit, bit * NUMBER_OF_CONSTANTS)
+                            : new NaturalBinaryDecoder(MIN_VALUE, MAX_VALUE, bit, bit * NUMBER_OF_CONSTANTS),
+                    BitvectorNeighbourhood::new,
+                    () -> {
+                        BitvectorSolution solution = new BitvectorSolution(bit * NUMBER_OF_CONSTANTS);
+                        solution.randomize(new Random());
+                        return solution;
+                    });
+        } else {
+            System.out.println("Unknown command.");
         }
+    }
 
-        RealMatrix variableMatrix = new Array2DRowRealMatrix(variables);
-        RealVector resultVector = new ArrayRealVector(results);
+    /**
+     * Runs simulated annealing that scores moves using the given
+     * {@code function}'s delta evaluation and prints the found solution.
+     *
+     * @param function being minimised.
+     * @param options selected in the command line.
+     */
+    private static void solveDelta(Function4 function, Options options) {
+        DoubleArraySolution start = new DoubleArraySolution(NUMBER_OF_CONSTANTS);
+        start.randomize(new Random(), MIN_VALUE, MAX_VALUE);
+
+        IDecoder<DoubleArraySolution> decoder = new PassThroughDecoder();
+        ITempSchedule schedule = createSchedule(scheduleOf(options), 1);
 
-        IFunction function = new Function4(variableMatrix, resultVector);
-        ITempSchedule schedule = new GeometricTempSchedule(0.995, 100, 1000, 1500);
+        DoubleArraySolution solution;
 
-        if (args[1].toLowerCase().equals("decimal")) {
-            IDecoder<DoubleArraySolution> decoder = new PassThroughDecoder();
-            DoubleArraySolution solution = new DoubleArraySolution(NUMBER_OF_CONSTANTS);
-            solution.randomize(new Random(), MIN_VALUE, MAX_VALUE);
+        try (SamplingProgressListener<DoubleArraySolution> listener =
+                     new SamplingProgressListener<>(decoder, options.progress, System.out)) {
+            IOptAlgorithm<DoubleArraySolution> alg = new DeltaSimulatedAnnealing<>(decoder,
+                    new DoubleArrayMoveNeighbourhood(new double[] {-1, 1}), start, function, schedule, true,
+                    listener);
 
-            IOptAlgorithm<DoubleArraySolution> alg = new SimulatedAnnealing<>(
-                    decoder,
-                    new DoubleArrayUnifNeighbourhood(new double[] {-1, 1}),
-                    solution,
-                    function,
-                    schedule,
-                    true);
             solution = alg.run();
+        }
 
-            System.out.println("Solution: " + Arrays.toString(decoder.decode(solution)));
-            System.out.println("Error: " + solution.value);
-        } else if (args[1].toLowerCase().startsWith("binary:")) {
-            String value = args[1].replace("binary:", "");
+        System.out.println("Solution: " + Arrays.toString(decoder.decode(solution)));
+        System.out.println("Error: " + solution.value);
+    }
 
-            int bit = Integer.parseInt(value);
+    /**
+     * Runs simulated annealing, parallel tempering if more than one
+     * replica is requested or population annealing if more than one
+     * chain is requested, and prints the found solution.
+     *
+     * @param function being minimised.
+     * @param options selected in the command line.
+     * @param representation describes how solutions are decoded.
+     * @param decoders used to create decoders.
+     * @param neighbourhoods used to create neighbourhoods that draw from the given random generator.
+     * @param solutions used to create random initial solutions.
+     * @param <T> type of solution used.
+     */
+    private static <T extends SingleObjectiveSolution> void solve(IFunction function, Options options,
+                                                                 Representation representation,
+                                                                 Supplier<IDecoder<T>> decoders,
+                                                                 Function<Random, INeighbourhood<T>> neighbourhoods,
+                                                                 Supplier<T> solutions) {
+        T solution;
 
-            if (bit < MIN_BINARY || bit > MAX_BINARY) {
-                System.out.println("Number of bits must be between " + MIN_BINARY + " and " + MAX_BINARY + ".");
-                return;
+        if (options.replicas > 1) {
+            solution = new ParallelTempering<>(decoders, () -> neighbourhoods.apply(new Random()), solutions,
+                    function, true, options.replicas, MIN_TEMPERATURE, INITIAL_TEMPERATURE, OUTER_LOOP,
+                    INNER_LOOP).run();
+        } else if (options.chains > 1) {
+            solution = new PopulationSimulatedAnnealing<>(decoders, () -> neighbourhoods.apply(new Random()),
+                    solutions, () -> createSchedule(scheduleOf(options), options.chains), function, true,
+                    options.chains, SYNC_INTERVAL).run();
+        } else {
+            AnnealingState<T> state;
+
+            if (options.resume != null) {
+                try {
+                    state = Checkpointer.load(options.resume);
+                } catch (IOException exc) {
+                    System.out.println("Couldn't read checkpoint.");
+                    return;
+                }
+
+                if (!representation.equals(state.representation)) {
+                    System.out.println("Checkpoint was saved with " + state.representation + ", not "
+                            + representation + ".");
+                    return;
+                }
+
+                String saved = scheduleName(state.schedule);
+
+                if (options.schedule != null && !options.schedule.equals(saved)) {
+                    System.out.println("Checkpoint was saved with the " + saved + " schedule, not "
+                            + options.schedule + ".");
+                    return;
+                }
+            } else {
+                state = new AnnealingState<>(solutions.get(), createSchedule(scheduleOf(options), 1), new Random(),
+                        representation);
             }
 
-            IDecoder<BitvectorSolution> decoder = new NaturalBinaryDecoder(MIN_VALUE, MAX_VALUE,
-                    bit, bit * NUMBER_OF_CONSTANTS);
-            BitvectorSolution solution = new BitvectorSolution(bit * NUMBER_OF_CONSTANTS);
-            solution.randomize(new Random());
-
-            IOptAlgorithm<BitvectorSolution> alg = new SimulatedAnnealing<>(
-                    decoder,
-                    new BitvectorNeighbourhood(),
-                    solution,
-                    function,
-                    schedule,
-                    true);
-            solution = alg.run();
+            try (SamplingProgressListener<T> listener =
+                         new SamplingProgressListener<>(decoders.get(), options.progress, System.out)) {
+                SimulatedAnnealing<T> alg = new SimulatedAnnealing<>(decoders.get(),
+                        neighbourhoods.apply(state.rand), function, true, listener, state);
+
+                if (options.checkpoint == null) {
+                    solution = alg.run();
+                } else {
+                    try (Checkpointer checkpointer = new Checkpointer(options.checkpoint)) {
+                        alg.setCheckpointer(checkpointer, CHECKPOINT_INTERVAL);
+                        solution = alg.run();
+                    } catch (IOException exc) {
+                        System.out.println("Couldn't write checkpoint.");
+                        return;
+                    }
+                }
+            }
+        }
 
-            System.out.println("Solution: " + Arrays.toString(decoder.decode(solution)));
-            System.out.println("Error: " + solution.value);
+        System.out.println("Solution: " + Arrays.toString(decoders.get().decode(solution)));
+        System.out.println("Error: " + solution.value);
+    }
+
+    /**
+     * Creates the cooling schedule with the given {@code name} for one of
+     * {@code chains} chains sharing the budget. Each chain gets an equal
+     * share of the outer loops and geometric cooling is sped up so it
+     * still reaches the same final temperature.
+     *
+     * @param name geometric, lam or acceptance.
+     * @param chains number of chains sharing the budget.
+     *
+     * @return the schedule, or {@code null} if the name is unknown.
+     */
+    private static ITempSchedule createSchedule(String name, int chains) {
+        int outer = OUTER_LOOP / chains;
+
+        switch (name) {
+            case "geometric":
+                return new GeometricTempSchedule(Math.pow(ALPHA, chains), INITIAL_TEMPERATURE, INNER_LOOP, outer);
+            case "lam":
+                return new LamDelosmeTempSchedule(LAMBDA, INITIAL_TEMPERATURE, INNER_LOOP, outer,
+                        STAGNATION_LIMIT / chains, FREEZE_LIMIT / chains);
+            case "acceptance":
+                return new AcceptanceRateTempSchedule(INITIAL_RATE, FINAL_RATE, GAIN, INITIAL_TEMPERATURE,
+                        INNER_LOOP, outer, STAGNATION_LIMIT / chains, FREEZE_LIMIT / chains);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Provides the name of the cooling schedule selected in the command line.
+     *
+     * @param options selected in the command line.
+     *
+     * @return name of the selected schedule, or {@link #DEFAULT_SCHEDULE} if none was selected.
+     */
+    private static String scheduleOf(Options options) {
+        return options.schedule == null ? DEFAULT_SCHEDULE : options.schedule;
+    }
+
+    /**
+     * Provides the name {@link #createSchedule(String, int)} uses for the given {@code schedule}.
+     *
+     * @param schedule whose name is provided.
+     *
+     * @return geometric, lam or acceptance.
+     */
+    private static String scheduleName(ITempSchedule schedule) {
+        if (schedule instanceof LamDelosmeTempSchedule) {
+            return "lam";
+        } else if (schedule instanceof AcceptanceRateTempSchedule) {
+            return "acceptance";
         } else {
-            System.out.println("Unknown command.");
+            return DEFAULT_SCHEDULE;
         }
     }
+
+    /**
+     * Options selected in the command line.
+     */
+    private static class Options {
+
+        /**
+         * Number of parallel tempering replicas, {@code 1} for simulated annealing.
+         */
+        private int replicas = 1;
+
+        /**
+         * Number of population annealing chains, {@code 1} for simulated annealing.
+         */
+        private int chains = 1;
+
+        /**
+         * Whether moves are scored incrementally.
+         */
+        private boolean delta;
+
+        /**
+         * Number of iterations between two progress reports.
+         */
+        private long progress = PROGRESS_INTERVAL;
+
+        /**
+         * Name of the cooling schedule, {@code null} if not selected.
+         */
+        private String schedule;
+
+        /**
+         * File checkpoints are written to, {@code null} if not used.
+         */
+        private Path checkpoint;
+
+        /**
+         * Checkpoint the run continues from, {@code null} if not used.
+         */
+        private Path resume;
+    }
 }
@@ -0,0 +1,165 @@
+package hr.fer.zemris.optjava.dz3.algorithms;
+
+import hr.fer.zemris.optjava.dz3.cooling.ITempSchedule;
+import hr.fer.zemris.optjava.dz3.decoders.IDecoder;
+import hr.fer.zemris.optjava.dz3.functions.IDeltaEvaluator;
+import hr.fer.zemris.optjava.dz3.functions.IDeltaFunction;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.IMoveNeighbourhood;
+import hr.fer.zemris.optjava.dz3.progress.IProgressListener;
+import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
+
+import java.util.Random;
+
+/**
+ * A {@link SimulatedAnnealing} variant that scores moves using an
+ * {@link IDeltaEvaluator} and only changes the current solution
+ * when a move is accepted, so rejected moves create no new solutions.
+ * <p>
+ * Moves are applied to the decoded point, so the decoder must
+ * map every variable of a solution to exactly one variable
+ * of the function, as {@link hr.fer.zemris.optjava.dz3.decoders.PassThroughDecoder} does.
+ *
+ * @param <T> type of solution used.
+ * @param <M> type of move used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class DeltaSimulatedAnnealing<T extends SingleObjectiveSolution, M> implements IOptAlgorithm<T> {
+
+    /**
+     * Used to decode the initial solution.
+     */
+    private IDecoder<T> decoder;
+
+    /**
+     * Used to generate random moves.
+     */
+    private IMoveNeighbourhood<T, M> neighbourhood;
+
+    /**
+     * Initial solution.
+     */
+    private T startsWith;
+
+    /**
+     * Function being optimized.
+     */
+    private IDeltaFunction<M> function;
+
+    /**
+     * Used to simulate cooling.
+     */
+    private ITempSchedule schedule;
+
+    /**
+     * Used to check whether the function is being minimised.
+     */
+    private final boolean minimize;
+
+    /**
+     * Notified about accepted solutions, may be {@code null}.
+     */
+    private IProgressListener<T> listener;
+
+    /**
+     * Used to generate random values.
+     */
+    private Random rand;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param decoder used to decode solutions.
+     * @param neighbourhood used to generate moves.
+     * @param startsWith initial solution.
+     * @param function being optimized.
+     * @param schedule used for cooling.
+     * @param minimize whether the function is being minimised.
+     */
+    public DeltaSimulatedAnnealing(IDecoder<T> decoder, IMoveNeighbourhood<T, M> neighbourhood, T startsWith,
+                                   IDeltaFunction<M> function, ITempSchedule schedule, boolean minimize) {
+        this(decoder, neighbourhood, startsWith, function, schedule, minimize, null);
+    }
+
+    /**
+     * Constructor that also assigns a progress listener.
+     *
+     * @param decoder used to decode solutions.
+     * @param neighbourhood used to generate moves.
+     * @param startsWith initial solution.
+     * @param function being optimized.
+     * @param schedule used for cooling.
+     * @param minimize whether the function is being minimised.
+     * @param listener notified about accepted solutions, may be {@code null}.
+     */
+    public DeltaSimulatedAnnealing(IDecoder<T> decoder, IMoveNeighbourhood<T, M> neighbourhood, T startsWith,
+                                   IDeltaFunction<M> function, ITempSchedule schedule, boolean minimize,
+                                   IProgressListener<T> listener) {
+        this.decoder = decoder;
+        this.neighbourhood = neighbourhood;
+        this.startsWith = startsWith;
+        this.function = function;
+        this.schedule = schedule;
+        this.minimize = minimize;
+        this.listener = listener;
+        this.rand = new Random();
+    }
+
+    @Override
+    public T run() {
+        T solution = startsWith;
+        IDeltaEvaluator<M> evaluator = function.newEvaluator(decoder.decode(solution));
+        update(solution, evaluator);
+
+        long iteration = 0;
+        int outerSize = schedule.getOuterLoopCounter();
+
+        for (int outer = 0; outer < outerSize && !schedule.isFrozen(); outer++) {
+            double temperature = schedule.getNextTemperature();
+            int accepted = 0;
+            double mean = 0, squares = 0;
+            int innerSize = schedule.getInnerLoopCounter();
+
+            for (int inner = 0; inner < innerSize; inner++) {
+                M move = neighbourhood.randomMove(solution);
+                double change = evaluator.delta(move);
+                double delta = minimize ? change : -change;
+                iteration++;
+
+                if (delta <= 0 || rand.nextDouble() <= Math.exp(-delta / temperature)) {
+                    accepted++;
+                    neighbourhood.applyMove(solution, move);
+                    evaluator.accept();
+                    update(solution, evaluator);
+
+                    if (listener != null) {
+                        listener.accepted(iteration, solution, temperature);
+                    }
+                }
+
+                double energy = -solution.fitness;
+                double previous = mean;
+                mean += (energy - mean) / (inner + 1);
+                squares += (energy - previous) * (energy - mean);
+            }
+
+            schedule.update(accepted, innerSize, mean, innerSize == 0 ? 0 : squares / innerSize);
+        }
+
+        return solution;
+    }
+
+    /**
+     * Updates {@link SingleObjectiveSolution#value} and
+     * {@link SingleObjectiveSolution#fitness} of the given
+     * {@code solution} from the given {@code evaluator}.
+     *
+     * @param solution being updated.
+     * @param evaluator positioned at the solution.
+     */
+    private void update(T solution, IDeltaEvaluator<M> evaluator) {
+        solution.value = evaluator.getValue();
+        solution.fitness = minimize ? -solution.value : solution.value;
+    }
+}
@@ -0,0 +1,348 @@
+package hr.fer.zemris.optjava.dz3.algorithms;
+
+import hr.fer.zemris.optjava.dz3.decoders.IDecoder;
+import hr.fer.zemris.optjava.dz3.functions.IFunction;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.INeighbourhood;
+import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * An {@link IOptAlgorithm} that runs a replica of {@link SimulatedAnnealing}'s
+ * Metropolis chain at each temperature of a ladder, every replica on its own thread.
+ * <p>
+ * After each round of steps the replicas wait for each other and neighbouring
+ * replicas attempt to swap their solutions. The ladder is periodically adapted
+ * so swaps between every pair of neighbours are accepted at roughly
+ * {@link #TARGET_SWAP_RATE}.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class ParallelTempering<T extends SingleObjectiveSolution> implements IOptAlgorithm<T> {
+
+    /**
+     * Swap acceptance rate the ladder is adapted to.
+     */
+    private static final double TARGET_SWAP_RATE = 0.23;
+
+    /**
+     * Number of exchange rounds between ladder adaptations.
+     */
+    private static final int ADAPTATION_INTERVAL = 10;
+
+    /**
+     * Determines how strongly the ladder is adapted.
+     */
+    private static final double ADAPTATION_RATE = 0.5;
+
+    /**
+     * Used to create a decoder for each replica.
+     */
+    private final Supplier<IDecoder<T>> decoders;
+
+    /**
+     * Used to create a neighbourhood for each replica.
+     */
+    private final Supplier<INeighbourhood<T>> neighbourhoods;
+
+    /**
+     * Used to create an initial solution for each replica.
+     */
+    private final Supplier<T> startsWith;
+
+    /**
+     * Function being optimized.
+     */
+    private final IFunction function;
+
+    /**
+     * Used to check whether the function is being minimised.
+     */
+    private final boolean minimize;
+
+    /**
+     * Number of replicas.
+     */
+    private final int replicas;
+
+    /**
+     * Temperature of the coldest replica.
+     */
+    private final double minTemperature;
+
+    /**
+     * Initial temperature of the hottest replica.
+     */
+    private final double maxTemperature;
+
+    /**
+     * Number of exchange rounds.
+     */
+    private final int exchanges;
+
+    /**
+     * Number of steps each replica performs between exchanges.
+     */
+    private final int stepsPerExchange;
+
+    /**
+     * Used to decide on swaps.
+     */
+    private final Random rand;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param decoders used to create a decoder for each replica.
+     * @param neighbourhoods used to create a neighbourhood for each replica.
+     * @param startsWith used to create an initial solution for each replica.
+     * @param function being optimized.
+     * @param minimize whether the function is being minimised.
+     * @param replicas number of replicas, at least two.
+     * @param minTemperature temperature of the coldest replica.
+     * @param maxTemperature initial temperature of the hottest replica.
+     * @param exchanges number of exchange rounds.
+     * @param stepsPerExchange number of steps each replica performs between exchanges.
+     */
+    public ParallelTempering(Supplier<IDecoder<T>> decoders, Supplier<INeighbourhood<T>> neighbourhoods,
+                             Supplier<T> startsWith, IFunction function, boolean minimize, int replicas,
+                             double minTemperature, double maxTemperature, int exchanges, int stepsPerExchange) {
+        if (replicas < 2) {
+            throw new IllegalArgumentException("At least two replicas are required.");
+        } else if (minTemperature <= 0 || maxTemperature <= minTemperature) {
+            throw new IllegalArgumentException("Temperatures must be positive and increasing.");
+        }
+
+        this.decoders = decoders;
+        this.neighbourhoods = neighbourhoods;
+        this.startsWith = startsWith;
+        this.function = function;
+        this.minimize = minimize;
+        this.replicas = replicas;
+        this.minTemperature = minTemperature;
+        this.maxTemperature = maxTemperature;
+        this.exchanges = exchanges;
+        this.stepsPerExchange = stepsPerExchange;
+        this.rand = new Random();
+    }
+
+    @Override
+    public T run() {
+        List<Replica> ladder = new ArrayList<>(replicas);
+        double ratio = Math.pow(maxTemperature / minTemperature, 1.0 / (replicas - 1));
+
+        for (int i = 0; i < replicas; i++) {
+            ladder.add(new Replica(minTemperature * Math.pow(ratio, i)));
+        }
+
+        T best = ladder.get(0).best;
+
+        for (Replica replica : ladder) {
+            if (replica.best.fitness > best.fitness) {
+                best = replica.best;
+            }
+        }
+
+        int[] attempted = new int[replicas - 1];
+        int[] accepted = new int[replicas - 1];
+        ExecutorService pool = Executors.newFixedThreadPool(replicas);
+
+        try {
+            for (int round = 0; round < exchanges; round++) {
+                for (Future<Void> future : pool.invokeAll(ladder)) {
+                    future.get();
+                }
+
+                for (Replica replica : ladder) {
+                    if (replica.best.fitness > best.fitness) {
+                        best = replica.best;
+                    }
+                }
+
+                for (int i = round % 2; i < replicas - 1; i += 2) {
+                    attempted[i]++;
+
+                    if (trySwap(ladder.get(i), ladder.get(i + 1))) {
+                        accepted[i]++;
+                    }
+                }
+
+                if ((round + 1) % ADAPTATION_INTERVAL == 0) {
+                    adaptLadder(ladder, attempted, accepted);
+                }
+            }
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Replica failed.", exc.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return best;
+    }
+
+    /**
+     * Attempts to swap solutions between two neighbouring replicas.
+     *
+     * @param colder replica with the lower temperature.
+     * @param hotter replica with the higher temperature.
+     *
+     * @return {@code true} if the solutions were swapped, otherwise {@code false}.
+     */
+    private boolean trySwap(Replica colder, Replica hotter) {
+        double exponent = (1 / colder.temperature - 1 / hotter.temperature)
+                * (hotter.solution.fitness - colder.solution.fitness);
+
+        if (exponent >= 0 || rand.nextDouble() <= Math.exp(exponent)) {
+            T solution = colder.solution;
+            colder.solution = hotter.solution;
+            hotter.solution = solution;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Moves the temperatures of the ladder closer together where swaps
+     * are rarer than {@link #TARGET_SWAP_RATE} and further apart where
+     * they are more frequent. The coldest temperature stays fixed.
+     *
+     * @param ladder of replicas, from the coldest to the hottest.
+     * @param attempted number of swaps attempted between each pair, reset afterwards.
+     * @param accepted number of swaps accepted between each pair, reset afterwards.
+     */
+    private void adaptLadder(List<Replica> ladder, int[] attempted, int[] accepted) {
+        double[] gaps = new double[replicas - 1];
+
+        for (int i = 0; i < replicas - 1; i++) {
+            double gap = Math.log(ladder.get(i + 1).temperature / ladder.get(i).temperature);
+
+            if (attempted[i] > 0) {
+                double rate = (double) accepted[i] / attempted[i];
+                gap *= Math.exp(ADAPTATION_RATE * (rate - TARGET_SWAP_RATE));
+            }
+
+            gaps[i] = gap;
+            attempted[i] = 0;
+            accepted[i] = 0;
+        }
+
+        for (int i = 0; i < replicas - 1; i++) {
+            ladder.get(i + 1).temperature = ladder.get(i).temperature * Math.exp(gaps[i]);
+        }
+    }
+
+    /**
+     * Initializes the given {@code solution} by
+     *  calculating {@link SingleObjectiveSolution#fitness}
+     *  and {@link SingleObjectiveSolution#value}.
+     *
+     * @param solution to be initialized.
+     * @param decoder used to decode the solution.
+     */
+    private void initializeSolution(T solution, IDecoder<T> decoder) {
+        solution.value = function.valueAt(decoder.decode(solution));
+        solution.fitness = minimize ? -solution.value : solution.value;
+    }
+
+    /**
+     * Creates a copy of the given {@code solution}, including its value and fitness.
+     *
+     * @param solution being copied.
+     *
+     * @return copy of the given {@code solution}.
+     */
+    @SuppressWarnings("unchecked")
+    private T copy(T solution) {
+        T copy = (T) solution.duplicate();
+        copy.value = solution.value;
+        copy.fitness = solution.fitness;
+
+        return copy;
+    }
+
+    /**
+     * A single Metropolis chain at a fixed temperature.
+     */
+    private class Replica implements Callable<Void> {
+
+        /**
+         * Used to decode solutions of this replica.
+         */
+        private final IDecoder<T> decoder;
+
+        /**
+         * Used to generate neighbours in this replica.
+         */
+        private final INeighbourhood<T> neighbourhood;
+
+        /**
+         * Used to generate random values in this replica.
+         */
+        private final Random rand;
+
+        /**
+         * Temperature of this replica.
+         */
+        private double temperature;
+
+        /**
+         * Current solution of this replica.
+         */
+        private T solution;
+
+        /**
+         * Best solution found by this replica.
+         */
+        private T best;
+
+        /**
+         * Default constructor that initializes the replica.
+         *
+         * @param temperature of this replica.
+         */
+        Replica(double temperature) {
+            this.decoder = decoders.get();
+            this.neighbourhood = neighbourhoods.get();
+            this.rand = new Random();
+            this.temperature = temperature;
+            this.solution = startsWith.get();
+
+            initializeSolution(solution, decoder);
+            best = copy(solution);
+        }
+
+        @Override
+        public Void call() {
+            for (int step = 0; step < stepsPerExchange; step++) {
+                T neighbour = neighbourhood.randomNeighbour(solution);
+                initializeSolution(neighbour, decoder);
+                double delta = solution.fitness - neighbour.fitness;
+
+                if (delta <= 0 || rand.nextDouble() <= Math.exp(-delta / temperature)) {
+                    solution = neighbour;
+
+                    if (solution.fitness > best.fitness) {
+                        best = copy(solution);
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+}
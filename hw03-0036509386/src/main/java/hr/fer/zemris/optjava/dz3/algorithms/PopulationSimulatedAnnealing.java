@@ -0,0 +1,291 @@
+package hr.fer.zemris.optjava.dz3.algorithms;
+
+import hr.fer.zemris.optjava.dz3.checkpoint.AnnealingState;
+import hr.fer.zemris.optjava.dz3.cooling.ITempSchedule;
+import hr.fer.zemris.optjava.dz3.decoders.IDecoder;
+import hr.fer.zemris.optjava.dz3.functions.IFunction;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.INeighbourhood;
+import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * An {@link IOptAlgorithm} that runs several independent {@link SimulatedAnnealing}
+ * chains, each on its own thread with its own random generator and schedule.
+ * <p>
+ * Every {@link #syncInterval} outer loops the chains wait for each other and
+ * the worst of them continue from the best solution found by any chain, which
+ * the chains publish without locking. The run ends early once every
+ * chain's schedule has frozen.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class PopulationSimulatedAnnealing<T extends SingleObjectiveSolution> implements IOptAlgorithm<T> {
+
+    /**
+     * Fraction of chains restarted from the best solution after each synchronization.
+     */
+    private static final double RESTART_FRACTION = 0.25;
+
+    /**
+     * Used to create a decoder for each chain.
+     */
+    private final Supplier<IDecoder<T>> decoders;
+
+    /**
+     * Used to create a neighbourhood for each chain.
+     */
+    private final Supplier<INeighbourhood<T>> neighbourhoods;
+
+    /**
+     * Used to create an initial solution for each chain.
+     */
+    private final Supplier<T> startsWith;
+
+    /**
+     * Used to create a schedule for each chain.
+     */
+    private final Supplier<ITempSchedule> schedules;
+
+    /**
+     * Function being optimized.
+     */
+    private final IFunction function;
+
+    /**
+     * Used to check whether the function is being minimised.
+     */
+    private final boolean minimize;
+
+    /**
+     * Number of chains, each running on its own thread.
+     */
+    private final int chains;
+
+    /**
+     * Number of outer loops between two synchronizations.
+     */
+    private final int syncInterval;
+
+    /**
+     * Best solution found by any chain.
+     */
+    private final AtomicReference<T> best;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param decoders used to create a decoder for each chain.
+     * @param neighbourhoods used to create a neighbourhood for each chain.
+     * @param startsWith used to create an initial solution for each chain.
+     * @param schedules used to create a schedule for each chain.
+     * @param function being optimized.
+     * @param minimize whether the function is being minimised.
+     * @param chains number of chains, each running on its own thread.
+     * @param syncInterval number of outer loops between two synchronizations.
+     */
+    public PopulationSimulatedAnnealing(Supplier<IDecoder<T>> decoders, Supplier<INeighbourhood<T>> neighbourhoods,
+                                        Supplier<T> startsWith, Supplier<ITempSchedule> schedules,
+                                        IFunction function, boolean minimize, int chains, int syncInterval) {
+        if (chains < 1) {
+            throw new IllegalArgumentException("At least one chain is required.");
+        } else if (syncInterval < 1) {
+            throw new IllegalArgumentException("Synchronization interval must be positive.");
+        }
+
+        this.decoders = decoders;
+        this.neighbourhoods = neighbourhoods;
+        this.startsWith = startsWith;
+        this.schedules = schedules;
+        this.function = function;
+        this.minimize = minimize;
+        this.chains = chains;
+        this.syncInterval = syncInterval;
+        this.best = new AtomicReference<>();
+    }
+
+    @Override
+    public T run() {
+        List<Chain> population = new ArrayList<>(chains);
+
+        for (int i = 0; i < chains; i++) {
+            population.add(new Chain());
+        }
+
+        int outerSize = population.get(0).schedule.getOuterLoopCounter();
+        int restarts = chains == 1 ? 0 : Math.max(1, (int) (chains * RESTART_FRACTION));
+        ExecutorService pool = Executors.newFixedThreadPool(chains);
+
+        try {
+            for (int end = syncInterval; ; end += syncInterval) {
+                for (Chain chain : population) {
+                    chain.schedule.end = Math.min(end, outerSize);
+                }
+
+                for (Future<Void> future : pool.invokeAll(population)) {
+                    future.get();
+                }
+
+                if (end >= outerSize || population.stream().allMatch(chain -> chain.schedule.isFrozen())) {
+                    break;
+                }
+
+                population.sort(Comparator.comparingDouble(chain -> chain.state.solution.fitness));
+                T global = best.get();
+
+                for (int i = 0; i < restarts; i++) {
+                    population.get(i).state.solution = copy(global);
+                }
+            }
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Chain failed.", exc.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return best.get();
+    }
+
+    /**
+     * Publishes the given {@code solution} if it's better than {@link #best}.
+     *
+     * @param solution found by a chain.
+     */
+    private void publish(T solution) {
+        while (true) {
+            T current = best.get();
+
+            if (current != null && current.fitness >= solution.fitness) {
+                return;
+            } else if (best.compareAndSet(current, copy(solution))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of the given {@code solution}, including its value and fitness.
+     *
+     * @param solution being copied.
+     *
+     * @return copy of the given {@code solution}.
+     */
+    @SuppressWarnings("unchecked")
+    private T copy(T solution) {
+        T copy = (T) solution.duplicate();
+        copy.value = solution.value;
+        copy.fitness = solution.fitness;
+
+        return copy;
+    }
+
+    /**
+     * A single annealing chain that runs until the end of its {@link SegmentSchedule}.
+     */
+    private class Chain implements Callable<Void> {
+
+        /**
+         * Schedule of this chain.
+         */
+        private final SegmentSchedule schedule;
+
+        /**
+         * State of this chain.
+         */
+        private final AnnealingState<T> state;
+
+        /**
+         * Annealing run of this chain.
+         */
+        private final SimulatedAnnealing<T> annealing;
+
+        /**
+         * Default constructor that initializes the chain.
+         */
+        Chain() {
+            this.schedule = new SegmentSchedule(schedules.get());
+            this.state = new AnnealingState<>(startsWith.get(), schedule, new Random());
+            this.annealing = new SimulatedAnnealing<>(decoders.get(), neighbourhoods.get(), function, minimize,
+                    null, state);
+        }
+
+        @Override
+        public Void call() {
+            annealing.run();
+            publish(state.best);
+
+            return null;
+        }
+    }
+
+    /**
+     * An {@link ITempSchedule} that ends its outer loop at {@link #end},
+     * so a chain can be run one segment at a time.
+     */
+    private static class SegmentSchedule implements ITempSchedule {
+
+        /**
+         * Used for serialization.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Schedule being followed.
+         */
+        private final ITempSchedule schedule;
+
+        /**
+         * Outer loop at which the current segment ends.
+         */
+        private int end;
+
+        /**
+         * Default constructor that assigns the {@code schedule}.
+         *
+         * @param schedule being followed.
+         */
+        SegmentSchedule(ITempSchedule schedule) {
+            this.schedule = schedule;
+        }
+
+        @Override
+        public double getNextTemperature() {
+            return schedule.getNextTemperature();
+        }
+
+        @Override
+        public int getInnerLoopCounter() {
+            return schedule.getInnerLoopCounter();
+        }
+
+        @Override
+        public int getOuterLoopCounter() {
+            return end == 0 ? schedule.getOuterLoopCounter() : end;
+        }
+
+        @Override
+        public void update(int accepted, int proposed, double mean, double variance) {
+            schedule.update(accepted, proposed, mean, variance);
+        }
+
+        @Override
+        public boolean isFrozen() {
+            return schedule.isFrozen();
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package hr.fer.zemris.optjava.dz3.algorithms;
 
+import hr.fer.zemris.optjava.dz3.checkpoint.AnnealingState;
+import hr.fer.zemris.optjava.dz3.checkpoint.Checkpointer;
 import hr.fer.zemris.optjava.dz3.functions.IFunction;
 import hr.fer.zemris.optjava.dz3.cooling.ITempSchedule;
 import hr.fer.zemris.optjava.dz3.decoders.IDecoder;
 import hr.fer.zemris.optjava.dz3.neighbourhoods.INeighbourhood;
+import hr.fer.zemris.optjava.dz3.neighbourhoods.IUndoableNeighbourhood;
+import hr.fer.zemris.optjava.dz3.progress.IProgressListener;
 import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
 
-import java.util.Arrays;
 import java.util.Random;
 
 /**
  * An {@link IOptAlgorithm} based on metal annealing.
+ * <p>
+ * The state of a run is kept in an {@link AnnealingState}, which can be
+ * saved periodically using a {@link Checkpointer} and later given to
+ * {@link #SimulatedAnnealing(IDecoder, INeighbourhood, IFunction, boolean, IProgressListener, AnnealingState)}
+ * to continue the run.
+ * <p>
+ * If the neighbourhood is an {@link IUndoableNeighbourhood}, the current
+ * solution is changed in place and the change is reverted on rejection,
+ * so only improvements of the best solution create new solutions.
  *
  * @author Mateo Imbrišak
  */
@@ -28,29 +40,39 @@ public class SimulatedAnnealing<T extends SingleObjectiveSolution> implements IO
     private INeighbourhood<T> neighbourhood;
 
     /**
-     * Initial solution.
+     * Function being optimized.
      */
-    private T startsWith;
+    private IFunction function;
 
     /**
-     * Function being optimized.
+     * Used to check whether the function is being minimised.
      */
-    private IFunction function;
+    private final boolean minimize;
 
     /**
-     * Used to simulate cooling.
+     * Notified about accepted solutions, may be {@code null}.
      */
-    private ITempSchedule schedule;
+    private IProgressListener<T> listener;
 
     /**
-     * Used to check whether the function is being minimised.
+     * State of the run.
      */
-    private final boolean minimize;
+    private final AnnealingState<T> state;
+
+    /**
+     * Used to save the state, may be {@code null}.
+     */
+    private Checkpointer checkpointer;
+
+    /**
+     * Number of outer loops between two checkpoints.
+     */
+    private int checkpointInterval;
 
     /**
-     * Used to generate random values.
+     * Buffer the solutions are decoded into.
      */
-    private Random rand;
+    private double[] point;
 
     /**
      * Default constructor that assigns all values.
@@ -64,44 +86,174 @@ public class SimulatedAnnealing<T extends SingleObjectiveSolution> implements IO
      */
     public SimulatedAnnealing(IDecoder<T> decoder, INeighbourhood<T> neighbourhood, T startsWith,
                               IFunction function, ITempSchedule schedule, boolean minimize) {
+        this(decoder, neighbourhood, startsWith, function, schedule, minimize, null);
+    }
+
+    /**
+     * Constructor that also assigns a progress listener.
+     *
+     * @param decoder used to decode solutions.
+     * @param neighbourhood used to generate neighbours.
+     * @param startsWith initial solution.
+     * @param function being optimized.
+     * @param schedule used for cooling.
+     * @param minimize whether the function is being minimised.
+     * @param listener notified about accepted solutions, may be {@code null}.
+     */
+    public SimulatedAnnealing(IDecoder<T> decoder, INeighbourhood<T> neighbourhood, T startsWith,
+                              IFunction function, ITempSchedule schedule, boolean minimize,
+                              IProgressListener<T> listener) {
+        this(decoder, neighbourhood, function, minimize, listener,
+                new AnnealingState<>(startsWith, schedule, new Random()));
+    }
+
+    /**
+     * Constructor that starts or continues a run from the given {@code state}.
+     *
+     * @param decoder used to decode solutions.
+     * @param neighbourhood used to generate neighbours.
+     * @param function being optimized.
+     * @param minimize whether the function is being minimised.
+     * @param listener notified about accepted solutions, may be {@code null}.
+     * @param state of a new or a saved run.
+     */
+    public SimulatedAnnealing(IDecoder<T> decoder, INeighbourhood<T> neighbourhood, IFunction function,
+                              boolean minimize, IProgressListener<T> listener, AnnealingState<T> state) {
         this.decoder = decoder;
         this.neighbourhood = neighbourhood;
-        this.startsWith = startsWith;
         this.function = function;
-        this.schedule = schedule;
         this.minimize = minimize;
-        this.rand = new Random();
+        this.listener = listener;
+        this.state = state;
+    }
+
+    /**
+     * Saves the state of the run using the given {@code checkpointer}
+     * after every {@code interval} outer loops.
+     *
+     * @param checkpointer used to save the state.
+     * @param interval number of outer loops between two checkpoints.
+     */
+    public void setCheckpointer(Checkpointer checkpointer, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+
+        this.checkpointer = checkpointer;
+        this.checkpointInterval = interval;
     }
 
     @Override
     public T run() {
-        T solution = startsWith;
-        initializeSolution(solution);
+        ITempSchedule schedule = state.schedule;
+        Random rand = state.rand;
+        IUndoableNeighbourhood<T> undoable = neighbourhood instanceof IUndoableNeighbourhood
+                ? (IUndoableNeighbourhood<T>) neighbourhood
+                : null;
+
+        if (state.solution == null) {
+            point = decoder.decode(state.startsWith);
+            initializeSolution(state.startsWith);
+            state.solution = state.startsWith;
+            state.best = undoable == null ? state.startsWith : copy(state.startsWith);
+        } else {
+            point = decoder.decode(state.solution);
+        }
+
+        T solution = state.solution;
+        T best = state.best;
+        long iteration = state.iteration;
+        int outerSize = schedule.getOuterLoopCounter();
+        int outer = state.outer;
 
-        for (int outer = 0, outerSize = schedule.getOuterLoopCounter(); outer < outerSize; outer++) {
+        for (; outer < outerSize && !schedule.isFrozen(); outer++) {
             double temperature = schedule.getNextTemperature();
-            for (int inner = 0, innerSize = schedule.getInnerLoopCounter(); inner < innerSize; inner++) {
-                T neighbour = neighbourhood.randomNeighbour(solution);
+            int accepted = 0;
+            double mean = 0, squares = 0;
+            int innerSize = schedule.getInnerLoopCounter();
+
+            for (int inner = 0; inner < innerSize; inner++) {
+                double value = solution.value, fitness = solution.fitness;
+                T neighbour;
+
+                if (undoable == null) {
+                    neighbour = neighbourhood.randomNeighbour(solution);
+                } else {
+                    undoable.mutate(solution);
+                    neighbour = solution;
+                }
+
                 initializeSolution(neighbour);
-                double delta = solution.fitness - neighbour.fitness;
+                double delta = fitness - neighbour.fitness;
+                iteration++;
 
-                if (delta <= 0) {
+                if (delta <= 0 || rand.nextDouble() <= Math.exp(-delta / temperature)) {
+                    accepted++;
                     solution = neighbour;
-                    System.out.println("Accepted solution: " + Arrays.toString(decoder.decode(solution)) +
-                            " with error: " + solution.value + " at temperature: " + temperature);
-                } else {
-                    if (rand.nextDouble() <= Math.exp(-delta / temperature)) {
-                        solution = neighbour;
-                        System.out.println("Accepted solution: " + Arrays.toString(decoder.decode(solution)) +
-                                " with error: " + solution.value + " at temperature: " + temperature);
+
+                    if (solution.fitness > best.fitness) {
+                        best = undoable == null ? solution : copy(solution);
+                    }
+
+                    if (listener != null) {
+                        listener.accepted(iteration, solution, temperature);
                     }
+                } else if (undoable != null) {
+                    undoable.undo(solution);
+                    solution.value = value;
+                    solution.fitness = fitness;
                 }
+
+                double energy = -solution.fitness;
+                double previous = mean;
+                mean += (energy - mean) / (inner + 1);
+                squares += (energy - previous) * (energy - mean);
+            }
+
+            schedule.update(accepted, innerSize, mean, innerSize == 0 ? 0 : squares / innerSize);
+
+            if (checkpointer != null && (outer + 1) % checkpointInterval == 0) {
+                saveState(solution, best, outer + 1, iteration);
+                checkpointer.save(state);
             }
         }
 
+        saveState(solution, best, outer, iteration);
+
         return solution;
     }
 
+    /**
+     * Creates a copy of the given {@code solution}, including its value and fitness.
+     *
+     * @param solution being copied.
+     *
+     * @return copy of the given {@code solution}.
+     */
+    @SuppressWarnings("unchecked")
+    private T copy(T solution) {
+        T copy = (T) solution.duplicate();
+        copy.value = solution.value;
+        copy.fitness = solution.fitness;
+
+        return copy;
+    }
+
+    /**
+     * Copies the progress of the run into {@link #state}.
+     *
+     * @param solution current solution.
+     * @param best best solution found so far.
+     * @param outer index of the next outer loop.
+     * @param iteration number of steps performed so far.
+     */
+    private void saveState(T solution, T best, int outer, long iteration) {
+        state.solution = solution;
+        state.best = best;
+        state.outer = outer;
+        state.iteration = iteration;
+    }
+
     /**
      * Initializes the given {@code solution} by
      *  calculating {@link SingleObjectiveSolution#fitness}
@@ -110,7 +262,8 @@ public class SimulatedAnnealing<T extends SingleObjectiveSolution> implements IO
      * @param solution to be initialized.
      */
     private void initializeSolution(T solution) {
-        solution.value = function.valueAt(decoder.decode(solution));
+        decoder.decode(solution, point);
+        solution.value = function.valueAt(point);
         solution.fitness = minimize ? -solution.value : solution.value;
     }
 }
@@ -0,0 +1,94 @@
+package hr.fer.zemris.optjava.dz3.checkpoint;
+
+import hr.fer.zemris.optjava.dz3.cooling.ITempSchedule;
+import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * Everything needed to continue a
+ * {@link hr.fer.zemris.optjava.dz3.algorithms.SimulatedAnnealing}
+ * run from the start of an outer loop.
+ * <p>
+ * A run is only continued from the exact step if its neighbourhood
+ * draws random values from {@link #rand} as well.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class AnnealingState<T extends SingleObjectiveSolution> implements Serializable {
+
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 2L;
+
+    /**
+     * Current solution, {@code null} until it's evaluated.
+     */
+    public T solution;
+
+    /**
+     * Best solution found so far.
+     */
+    public T best;
+
+    /**
+     * Initial solution.
+     */
+    public final T startsWith;
+
+    /**
+     * Used to simulate cooling.
+     */
+    public final ITempSchedule schedule;
+
+    /**
+     * Used to generate random values.
+     */
+    public final Random rand;
+
+    /**
+     * Describes how solutions are decoded, {@code null} if unknown.
+     */
+    public final Representation representation;
+
+    /**
+     * Index of the next outer loop.
+     */
+    public int outer;
+
+    /**
+     * Number of steps performed so far.
+     */
+    public long iteration;
+
+    /**
+     * Constructor for runs whose representation isn't known.
+     *
+     * @param startsWith initial solution.
+     * @param schedule used for cooling.
+     * @param rand used to generate random values.
+     */
+    public AnnealingState(T startsWith, ITempSchedule schedule, Random rand) {
+        this(startsWith, schedule, rand, null);
+    }
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param startsWith initial solution.
+     * @param schedule used for cooling.
+     * @param rand used to generate random values.
+     * @param representation describes how solutions are decoded.
+     */
+    public AnnealingState(T startsWith, ITempSchedule schedule, Random rand, Representation representation) {
+        this.startsWith = startsWith;
+        this.schedule = schedule;
+        this.rand = rand;
+        this.representation = representation;
+    }
+}
@@ -0,0 +1,154 @@
+package hr.fer.zemris.optjava.dz3.checkpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes checkpoints to a single file. A checkpoint is serialized on the
+ * caller's thread, which only takes a copy of the state, and written by
+ * a background thread to a temporary file that then replaces the
+ * checkpoint file atomically, so a killed run always leaves a whole checkpoint.
+ * <p>
+ * If checkpoints are produced faster than they are written, only the
+ * newest one waiting to be written is kept.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class Checkpointer implements Closeable {
+
+    /**
+     * File the checkpoints are written to.
+     */
+    private final Path path;
+
+    /**
+     * Temporary file used while writing.
+     */
+    private final Path temporary;
+
+    /**
+     * Thread that writes the checkpoints.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * Newest checkpoint that hasn't been written yet.
+     */
+    private final AtomicReference<byte[]> pending;
+
+    /**
+     * First error that occurred while writing.
+     */
+    private final AtomicReference<IOException> error;
+
+    /**
+     * Default constructor that assigns the {@code path}
+     * and starts the writer thread.
+     *
+     * @param path of the file the checkpoints are written to.
+     */
+    public Checkpointer(Path path) {
+        this.path = path;
+        this.temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        this.pending = new AtomicReference<>();
+        this.error = new AtomicReference<>();
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a checkpoint of the given {@code state}. The state can be
+     * changed as soon as this method returns.
+     *
+     * @param state being saved.
+     */
+    public void save(Serializable state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+
+        if (pending.getAndSet(bytes.toByteArray()) == null) {
+            writer.execute(this::write);
+        }
+    }
+
+    /**
+     * Writes the remaining checkpoint and stops the writer thread.
+     *
+     * @throws IOException if a checkpoint couldn't be written.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        }
+
+        IOException exc = error.get();
+
+        if (exc != null) {
+            throw exc;
+        }
+    }
+
+    /**
+     * Reads the checkpoint stored in the given file.
+     *
+     * @param path of the checkpoint file.
+     * @param <S> type of the saved state.
+     *
+     * @return the saved state.
+     *
+     * @throws IOException if the file couldn't be read or isn't a checkpoint.
+     */
+    @SuppressWarnings("unchecked")
+    public static <S extends Serializable> S load(Path path) throws IOException {
+        try (InputStream is = Files.newInputStream(path); ObjectInputStream in = new ObjectInputStream(is)) {
+            return (S) in.readObject();
+        } catch (ClassNotFoundException exc) {
+            throw new IOException("Not a valid checkpoint: " + path, exc);
+        }
+    }
+
+    /**
+     * Writes the newest pending checkpoint.
+     */
+    private void write() {
+        byte[] bytes = pending.getAndSet(null);
+
+        if (bytes == null) {
+            return;
+        }
+
+        try {
+            Files.write(temporary, bytes);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exc) {
+            error.compareAndSet(null, exc);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package hr.fer.zemris.optjava.dz3.checkpoint;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Describes how the solutions saved in an {@link AnnealingState}
+ * are decoded, so a checkpoint can only be resumed with the
+ * representation it was saved with.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class Representation implements Serializable {
+
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Name of the decoder, such as decimal, binary or gray.
+     */
+    private final String decoder;
+
+    /**
+     * Number of bits used for a single variable, {@code 0} if solutions aren't bitvectors.
+     */
+    private final int bitsPerVariable;
+
+    /**
+     * Minimum value of every variable.
+     */
+    private final double minimum;
+
+    /**
+     * Maximum value of every variable.
+     */
+    private final double maximum;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param decoder name of the decoder.
+     * @param bitsPerVariable number of bits used for a single variable, {@code 0} if not used.
+     * @param minimum value of every variable.
+     * @param maximum value of every variable.
+     */
+    public Representation(String decoder, int bitsPerVariable, double minimum, double maximum) {
+        this.decoder = decoder;
+        this.bitsPerVariable = bitsPerVariable;
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Representation that = (Representation) o;
+        return bitsPerVariable == that.bitsPerVariable && Double.compare(that.minimum, minimum) == 0
+                && Double.compare(that.maximum, maximum) == 0 && decoder.equals(that.decoder);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(decoder, bitsPerVariable, minimum, maximum);
+    }
+
+    @Override
+    public String toString() {
+        return (bitsPerVariable == 0 ? decoder : decoder + ":" + bitsPerVariable)
+                + " in [" + minimum + ", " + maximum + "]";
+    }
+}
@@ -0,0 +1,94 @@
+package hr.fer.zemris.optjava.dz3.cooling;
+
+/**
+ * An {@link AdaptiveTempSchedule} that adjusts the temperature so the
+ * acceptance ratio follows a target curve, which decays geometrically
+ * from the initial to the final ratio over the run.
+ * <p>
+ * Low ratios can't be measured in a single inner loop, so steps are
+ * pooled until at least {@link #MIN_EXPECTED} acceptances are expected.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class AcceptanceRateTempSchedule extends AdaptiveTempSchedule {
+
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of acceptances expected at the targeted ratio
+     * before the temperature is adjusted.
+     */
+    private static final double MIN_EXPECTED = 20;
+
+    /**
+     * Targeted acceptance ratio at the start of the run.
+     */
+    private final double initialRate;
+
+    /**
+     * Targeted acceptance ratio at the end of the run.
+     */
+    private final double finalRate;
+
+    /**
+     * Determines how strongly the temperature reacts to a missed target.
+     */
+    private final double gain;
+
+    /**
+     * Number of accepted steps since the last adjustment.
+     */
+    private int accepted;
+
+    /**
+     * Number of proposed steps since the last adjustment.
+     */
+    private int proposed;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param initialRate targeted acceptance ratio at the start of the run.
+     * @param finalRate targeted acceptance ratio at the end of the run.
+     * @param gain determines how strongly the temperature reacts to a missed target.
+     * @param tInitial to be assigned.
+     * @param innerLimit iterations with a single temperature.
+     * @param outerLimit total iterations.
+     * @param stagnationLimit inner loops without improvement before reheating, {@code 0} to never reheat.
+     * @param freezeLimit inner loops without improvement before freezing, {@code 0} to never freeze.
+     */
+    public AcceptanceRateTempSchedule(double initialRate, double finalRate, double gain, double tInitial,
+                                      int innerLimit, int outerLimit, int stagnationLimit, int freezeLimit) {
+        super(tInitial, innerLimit, outerLimit, stagnationLimit, freezeLimit);
+
+        if (initialRate <= 0 || initialRate > 1 || finalRate <= 0 || finalRate > initialRate) {
+            throw new IllegalArgumentException("Rates must be in (0, 1] and decreasing.");
+        }
+
+        this.initialRate = initialRate;
+        this.finalRate = finalRate;
+        this.gain = gain;
+    }
+
+    @Override
+    protected double adapt(int accepted, int proposed, double mean, double variance, double progress) {
+        double target = initialRate * Math.pow(finalRate / initialRate, Math.min(progress, 1));
+
+        this.accepted += accepted;
+        this.proposed += proposed;
+
+        if (this.proposed * target < MIN_EXPECTED) {
+            return temperature;
+        }
+
+        double error = (target - (double) this.accepted / this.proposed) / target;
+        this.accepted = 0;
+        this.proposed = 0;
+
+        return temperature * Math.exp(gain * Math.max(-1, Math.min(1, error)));
+    }
+}
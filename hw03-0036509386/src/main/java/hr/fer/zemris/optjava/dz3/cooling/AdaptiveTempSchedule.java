@@ -0,0 +1,193 @@
+package hr.fer.zemris.optjava.dz3.cooling;
+
+/**
+ * An abstract {@link ITempSchedule} that adjusts the temperature
+ * from the statistics reported after each inner loop.
+ * <p>
+ * If the mean energy doesn't improve for a number of inner loops
+ * the search is considered stuck and the temperature is raised
+ * above the one at which the last improvement happened. Once the
+ * mean energy hasn't improved for a longer number of inner loops,
+ * reheats included, the search freezes instead of being reheated
+ * again, so the run can end early while it's cold.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public abstract class AdaptiveTempSchedule implements ITempSchedule {
+
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Factor applied to the temperature at which the mean energy last
+     * improved, used as the new temperature when the search is stuck.
+     */
+    private static final double REHEAT_FACTOR = 2;
+
+    /**
+     * Relative amount by which the mean energy has to drop
+     * below {@link #bestMean} to count as an improvement.
+     */
+    private static final double IMPROVEMENT_TOLERANCE = 1e-2;
+
+    /**
+     * Initial assigned temperature.
+     */
+    protected final double tInitial;
+
+    /**
+     * Current temperature.
+     */
+    protected double temperature;
+
+    /**
+     * Number of iterations with a single temperature.
+     */
+    private final int innerLimit;
+
+    /**
+     * Number of times temperature should change.
+     */
+    private final int outerLimit;
+
+    /**
+     * Number of inner loops without improvement after which
+     * the temperature is raised, {@code 0} to never reheat.
+     */
+    private final int stagnationLimit;
+
+    /**
+     * Number of inner loops without improvement after which the
+     * search freezes instead of being reheated, {@code 0} to never freeze.
+     */
+    private final int freezeLimit;
+
+    /**
+     * Number of inner loops reported so far.
+     */
+    private int updates;
+
+    /**
+     * Lowest mean energy reported so far.
+     */
+    private double bestMean = Double.POSITIVE_INFINITY;
+
+    /**
+     * Temperature at which {@link #bestMean} was reached.
+     */
+    private double bestTemperature;
+
+    /**
+     * Number of inner loops since {@link #bestMean} improved or the temperature was raised.
+     */
+    private int stagnation;
+
+    /**
+     * Number of inner loops since {@link #bestMean} improved.
+     */
+    private int sinceImprovement;
+
+    /**
+     * Whether the search has frozen.
+     */
+    private boolean frozen;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param tInitial to be assigned.
+     * @param innerLimit iterations with a single temperature.
+     * @param outerLimit total iterations.
+     * @param stagnationLimit inner loops without improvement before reheating, {@code 0} to never reheat.
+     * @param freezeLimit inner loops without improvement before freezing, {@code 0} to never freeze.
+     */
+    public AdaptiveTempSchedule(double tInitial, int innerLimit, int outerLimit, int stagnationLimit,
+                                int freezeLimit) {
+        if (tInitial <= 0) {
+            throw new IllegalArgumentException("Initial temperature must be positive.");
+        }
+
+        this.tInitial = tInitial;
+        this.temperature = tInitial;
+        this.innerLimit = innerLimit;
+        this.outerLimit = outerLimit;
+        this.stagnationLimit = stagnationLimit;
+        this.freezeLimit = freezeLimit;
+    }
+
+    @Override
+    public double getNextTemperature() {
+        return temperature;
+    }
+
+    @Override
+    public int getInnerLoopCounter() {
+        return innerLimit;
+    }
+
+    @Override
+    public int getOuterLoopCounter() {
+        return outerLimit;
+    }
+
+    @Override
+    public void update(int accepted, int proposed, double mean, double variance) {
+        updates++;
+
+        if (improves(mean)) {
+            bestMean = mean;
+            bestTemperature = temperature;
+            stagnation = 0;
+            sinceImprovement = 0;
+        } else {
+            sinceImprovement++;
+            stagnation++;
+
+            if (stagnationLimit == 0 || stagnation >= stagnationLimit) {
+                if (freezeLimit > 0 && sinceImprovement >= freezeLimit) {
+                    frozen = true;
+                } else if (stagnationLimit > 0) {
+                    stagnation = 0;
+                    temperature = Math.min(tInitial, bestTemperature * REHEAT_FACTOR);
+                    return;
+                }
+            }
+        }
+
+        temperature = adapt(accepted, proposed, mean, variance, (double) updates / outerLimit);
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Checks whether the given {@code mean} energy improves on {@link #bestMean}
+     * by more than {@link #IMPROVEMENT_TOLERANCE}.
+     *
+     * @param mean energy over the last inner loop.
+     *
+     * @return {@code true} if the mean energy improved, otherwise {@code false}.
+     */
+    private boolean improves(double mean) {
+        return bestMean == Double.POSITIVE_INFINITY
+                || mean < bestMean - IMPROVEMENT_TOLERANCE * Math.abs(bestMean);
+    }
+
+    /**
+     * Calculates the next temperature from the current {@link #temperature}.
+     *
+     * @param accepted number of accepted steps in the last inner loop.
+     * @param proposed number of proposed steps in the last inner loop.
+     * @param mean energy over the last inner loop.
+     * @param variance of the energy over the last inner loop.
+     * @param progress fraction of the outer loop done so far.
+     *
+     * @return next temperature.
+     */
+    protected abstract double adapt(int accepted, int proposed, double mean, double variance, double progress);
+}
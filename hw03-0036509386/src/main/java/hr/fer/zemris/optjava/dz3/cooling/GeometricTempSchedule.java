@@ -9,6 +9,11 @@ package hr.fer.zemris.optjava.dz3.cooling;
 
 public class GeometricTempSchedule implements ITempSchedule {
 
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
     /**
      * Used to scale temperature.
      */
@@ -1,14 +1,17 @@
 package hr.fer.zemris.optjava.dz3.cooling;
 
+import java.io.Serializable;
+
 /**
  * An interface that models cooling strategies
  * used by {@link hr.fer.zemris.optjava.dz3.algorithms.SimulatedAnnealing}
- * algorithm.
+ * algorithm. Schedules are serializable so
+ * their position can be saved in a checkpoint.
  *
  * @author Mateo Imbrišak
  */
 
-public interface ITempSchedule {
+public interface ITempSchedule extends Serializable {
 
     /**
      * Calculates next temperature.
@@ -32,4 +35,26 @@ public interface ITempSchedule {
      * @return number of iterations in the outer loop.
      */
     int getOuterLoopCounter();
+
+    /**
+     * Called by the algorithm after each inner loop with statistics
+     * of its steps, so adaptive schedules can adjust the temperature.
+     * Energy is the negated fitness, so lower energy is always better.
+     *
+     * @param accepted number of accepted steps.
+     * @param proposed number of proposed steps.
+     * @param mean energy of the current solution over the inner loop.
+     * @param variance of the current solution's energy over the inner loop.
+     */
+    default void update(int accepted, int proposed, double mean, double variance) {}
+
+    /**
+     * Checks whether the search has frozen, in which case the
+     * algorithm stops before the outer loop ends.
+     *
+     * @return {@code true} if the search has frozen, otherwise {@code false}.
+     */
+    default boolean isFrozen() {
+        return false;
+    }
 }
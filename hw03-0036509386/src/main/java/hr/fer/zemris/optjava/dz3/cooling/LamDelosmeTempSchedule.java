@@ -0,0 +1,61 @@
+package hr.fer.zemris.optjava.dz3.cooling;
+
+/**
+ * An {@link AdaptiveTempSchedule} that follows the Lam-Delosme rule.
+ * The inverse temperature grows by a step that is large while the energy
+ * barely varies and small while the search is in a phase transition,
+ * scaled by a function of the acceptance ratio that peaks near 0.44.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class LamDelosmeTempSchedule extends AdaptiveTempSchedule {
+
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum factor by which the inverse temperature can grow in
+     * one step, used when the energy doesn't vary at all.
+     */
+    private static final double MAX_GROWTH = 1.5;
+
+    /**
+     * Quality factor, smaller values cool more slowly.
+     */
+    private final double lambda;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param lambda quality factor, smaller values cool more slowly.
+     * @param tInitial to be assigned.
+     * @param innerLimit iterations with a single temperature.
+     * @param outerLimit total iterations.
+     * @param stagnationLimit inner loops without improvement before reheating, {@code 0} to never reheat.
+     * @param freezeLimit inner loops without improvement before freezing, {@code 0} to never freeze.
+     */
+    public LamDelosmeTempSchedule(double lambda, double tInitial, int innerLimit, int outerLimit,
+                                  int stagnationLimit, int freezeLimit) {
+        super(tInitial, innerLimit, outerLimit, stagnationLimit, freezeLimit);
+
+        this.lambda = lambda;
+    }
+
+    @Override
+    protected double adapt(int accepted, int proposed, double mean, double variance, double progress) {
+        double rate = proposed == 0 ? 0 : (double) accepted / proposed;
+        double s = 1 / temperature;
+        double sigma = Math.sqrt(variance);
+        double growth = s * MAX_GROWTH;
+
+        if (sigma > 0) {
+            double g = 4 * rate * (1 - rate) * (1 - rate) / ((2 - rate) * (2 - rate));
+            growth = Math.min(growth, lambda / sigma / (s * s * variance) * g);
+        }
+
+        return 1 / (s + growth);
+    }
+}
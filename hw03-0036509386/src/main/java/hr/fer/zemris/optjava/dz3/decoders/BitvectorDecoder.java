@@ -8,6 +8,9 @@ import java.util.Arrays;
  * An abstract implementation
  * of {@link IDecoder} used to
  * decode {@link BitvectorSolution}s.
+ * <p>
+ * Subclasses only convert a chunk of bits to an integer,
+ * which is then linearly mapped to the variable's range.
  *
  * @author Mateo Imbrišak
  */
@@ -25,9 +28,10 @@ public abstract class BitvectorDecoder implements IDecoder<BitvectorSolution> {
     protected double[] maxs;
 
     /**
-     * Keeps currently processed bits.
+     * Maximum amount of bits used for a single variable,
+     * so every chunk fits into a {@code long}.
      */
-    protected int[] bits;
+    private static final int MAX_BITS = 62;
 
     /**
      * Amount of bits used for a single variable.
@@ -39,6 +43,11 @@ public abstract class BitvectorDecoder implements IDecoder<BitvectorSolution> {
      */
     protected int totalBits;
 
+    /**
+     * Factor that maps an integer to the range of each variable.
+     */
+    private double[] scales;
+
     /**
      * constructor that assigns all values.
      *
@@ -52,6 +61,8 @@ public abstract class BitvectorDecoder implements IDecoder<BitvectorSolution> {
         this.maxs = maxs;
         this.totalBits = totalBits;
         this.n = n;
+
+        initializeScales();
     }
 
     /**
@@ -69,6 +80,51 @@ public abstract class BitvectorDecoder implements IDecoder<BitvectorSolution> {
         Arrays.fill(maxs, max);
         this.n = n;
         this.totalBits = totalBits;
+
+        initializeScales();
+    }
+
+    @Override
+    public double[] decode(BitvectorSolution solution) {
+        double[] variables = new double[totalBits / n];
+
+        decode(solution, variables);
+
+        return variables;
+    }
+
+    @Override
+    public void decode(BitvectorSolution solution, double[] destination) {
+        for (int i = 0, size = totalBits / n; i < size; i++) {
+            destination[i] = mins[i] + toInteger(solution.bits, i * n) * scales[i];
+        }
+    }
+
+    /**
+     * Converts {@link #n} bits starting at the given {@code offset} to an integer.
+     * The bit at {@code offset} is the least significant one.
+     *
+     * @param bits of the solution being decoded.
+     * @param offset of the first bit of the variable.
+     *
+     * @return integer represented by the bits.
+     */
+    protected abstract long toInteger(boolean[] bits, int offset);
+
+    /**
+     * Calculates {@link #scales} from {@link #mins} and {@link #maxs}.
+     */
+    private void initializeScales() {
+        if (n < 1 || n > MAX_BITS) {
+            throw new IllegalArgumentException("Number of bits per variable must be between 1 and " + MAX_BITS + ".");
+        }
+
+        double maxInteger = (1L << n) - 1;
+        scales = new double[totalBits / n];
+
+        for (int i = 0, size = scales.length; i < size; i++) {
+            scales[i] = (maxs[i] - mins[i]) / maxInteger;
+        }
     }
 
     /**
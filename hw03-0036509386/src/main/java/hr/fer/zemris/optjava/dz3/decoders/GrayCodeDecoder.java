@@ -0,0 +1,49 @@
+package hr.fer.zemris.optjava.dz3.decoders;
+
+/**
+ * A {@link IDecoder} that decodes binary vectors where each
+ * variable is written in reflected Gray code, so neighbouring
+ * values always differ in a single bit.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class GrayCodeDecoder extends BitvectorDecoder {
+
+    /**
+     * Constructor that assigns all values.
+     *
+     * @param mins minimum value for each variable.
+     * @param maxs maximum value for each variable.
+     * @param n amount of bits used for a single variable.
+     * @param totalBits total number of bits.
+     */
+    public GrayCodeDecoder(double[] mins, double[] maxs, int n, int totalBits) {
+        super(mins, maxs, n, totalBits);
+    }
+
+    /**
+     * Constructor that assigns all values.
+     *
+     * @param min minimum value used for all variable.
+     * @param max maximum value used for all variable.
+     * @param n amount of bits used for a single variable.
+     * @param totalBits total number of bits.
+     */
+    public GrayCodeDecoder(double min, double max, int n, int totalBits) {
+        super(min, max, n, totalBits);
+    }
+
+    @Override
+    protected long toInteger(boolean[] bits, int offset) {
+        long value = 0;
+        long bit = 0;
+
+        for (int i = offset + n - 1; i >= offset; i--) {
+            bit ^= bits[i] ? 1 : 0;
+            value = (value << 1) | bit;
+        }
+
+        return value;
+    }
+}
@@ -1,7 +1,5 @@
 package hr.fer.zemris.optjava.dz3.decoders;
 
-import hr.fer.zemris.optjava.dz3.solutions.BitvectorSolution;
-
 /**
  * A {@link IDecoder} that decodes binary vectors.
  *
@@ -10,50 +8,38 @@ import hr.fer.zemris.optjava.dz3.solutions.BitvectorSolution;
 
 public class NaturalBinaryDecoder extends BitvectorDecoder {
 
+    /**
+     * Constructor that assigns all values.
+     *
+     * @param mins minimum value for each variable.
+     * @param maxs maximum value for each variable.
+     * @param n amount of bits used for a single variable.
+     * @param totalBits total number of bits.
+     */
     public NaturalBinaryDecoder(double[] mins, double[] maxs, int n, int totalBits) {
         super(mins, maxs, n, totalBits);
     }
 
+    /**
+     * Constructor that assigns all values.
+     *
+     * @param min minimum value used for all variable.
+     * @param max maximum value used for all variable.
+     * @param n amount of bits used for a single variable.
+     * @param totalBits total number of bits.
+     */
     public NaturalBinaryDecoder(double min, double max, int n, int totalBits) {
         super(min, max, n, totalBits);
     }
 
     @Override
-    public double[] decode(BitvectorSolution solution) {
-        int numberOfVariables = totalBits / n;
-        double[] variables = new double[numberOfVariables];
-
-        fillArray(solution, variables);
-
-        return variables;
-    }
+    protected long toInteger(boolean[] bits, int offset) {
+        long value = 0;
 
-    @Override
-    public void decode(BitvectorSolution solution, double[] destination) {
-        fillArray(solution, destination);
-    }
-
-    /**
-     * Fills the given {@code array} with decoded {@code solution}.
-     *
-     * @param solution being decoded.
-     * @param destination where the decoded solution is being stored.
-     */
-    private void fillArray(BitvectorSolution solution, double[] destination) {
-        int numberOfVariables = totalBits / n;
-        bits = new int[solution.bits.length];
-
-        for (int i = 0, size = bits.length; i < size; i++) {
-            bits[i] = solution.bits[i] ? 1 : 0;
+        for (int i = offset + n - 1; i >= offset; i--) {
+            value = (value << 1) | (bits[i] ? 1 : 0);
         }
 
-        for (int i = 1; i <= numberOfVariables; i++) {
-            double value = 0;
-            for (int currentPower = n - 1; currentPower >= 0; currentPower--) {
-                value += bits[i * n + (currentPower - n)] * Math.pow(2, currentPower);
-            }
-
-            destination[i - 1] = mins[i - 1] + value / (Math.pow(2, n) - 1) * (maxs[i - 1] - mins[i - 1]);
-        }
+        return value;
     }
 }
@@ -1,8 +1,11 @@
 package hr.fer.zemris.optjava.dz3.functions;
 
+import hr.fer.zemris.optjava.dz3.neighbourhoods.VariableMove;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 
+import java.util.Arrays;
+
 /**
  * A class representing a function with 5 sampled variables
  * and solutions, used to find the values of constants.
@@ -10,17 +13,19 @@ import org.apache.commons.math3.linear.RealVector;
  * @author Mateo Imbrišak
  */
 
-public class Function4 implements IFunction {
+public class Function4 implements IDeltaFunction<VariableMove> {
 
     /**
-     * Equation that represents this system.
+     * Number of accepted moves after which an evaluator
+     * recalculates its cached values to stop rounding
+     * errors from accumulating.
      */
-    private RealMatrix variables;
+    private static final int RESYNC_INTERVAL = 10_000;
 
     /**
-     * Results of the sampling.
+     * Samples used to calculate the error.
      */
-    private RealVector results;
+    private final PrijenosnaDataset dataset;
 
     /**
      * Default constructor that assigns all values.
@@ -29,24 +34,352 @@ public class Function4 implements IFunction {
      * @param results of the sampling.
      */
     public Function4(RealMatrix variables, RealVector results) {
-        this.variables = variables;
-        this.results = results;
+        this(PrijenosnaDataset.fromMatrix(variables, results));
+    }
+
+    /**
+     * Constructor that uses already loaded samples.
+     *
+     * @param dataset containing the samples.
+     */
+    public Function4(PrijenosnaDataset dataset) {
+        this.dataset = dataset;
     }
 
     @Override
     public double valueAt(double[] point) {
+        double a = point[0], b = point[1], c = point[2], d = point[3], e = point[4], f = point[5];
+
+        double[] x1 = dataset.x1;
+        double[] x1Cubedx2 = dataset.x1Cubedx2;
+        double[] x3 = dataset.x3;
+        double[] x4 = dataset.x4;
+        double[] x4x5Squared = dataset.x4x5Squared;
+        double[] y = dataset.y;
+
         double sum = 0;
 
-        for (int i = 0, size = results.getDimension(); i < size; i++) {
-            double result = (point[0] * variables.getEntry(i, 0) // a*x1
-                    + point[1] * Math.pow(variables.getEntry(i, 0), 3) * variables.getEntry(i, 1) // + b*x1^3*x2
-                    + point[2] * Math.exp(point[3] * variables.getEntry(i, 2)) // + c*e(d*x3)
-                    * (1 + Math.cos(point[4] * variables.getEntry(i, 3))) // * (1+cos(e*x4))
-                    + point[5] * variables.getEntry(i, 3) * Math.pow(variables.getEntry(i, 4), 2)) // + f*x4*x5^2
-                    - results.getEntry(i);
+        for (int i = 0, size = y.length; i < size; i++) {
+            double result = a * x1[i] // a*x1
+                    + b * x1Cubedx2[i] // + b*x1^3*x2
+                    + c * Math.exp(d * x3[i]) // + c*e(d*x3)
+                    * (1 + Math.cos(e * x4[i])) // * (1+cos(e*x4))
+                    + f * x4x5Squared[i] // + f*x4*x5^2
+                    - y[i];
             sum += result * result;
         }
 
         return sum;
     }
+
+    @Override
+    public IDeltaEvaluator<VariableMove> newEvaluator(double[] point) {
+        return new Evaluator(point);
+    }
+
+    /**
+     * An {@link IDeltaEvaluator} that caches the residual of every sample
+     * along with its exponential and cosine terms. For every constant that
+     * multiplies a term it also keeps the sums of residuals times the term
+     * and of the squared term, so scoring a move of {@code a}, {@code b},
+     * {@code c} or {@code f} takes constant time. A move of {@code d} or
+     * {@code e} only recalculates the affected term. Residuals are updated
+     * only when a move is accepted.
+     */
+    private class Evaluator implements IDeltaEvaluator<VariableMove> {
+
+        /**
+         * Index of the constant multiplying the exponential and cosine term.
+         */
+        private static final int C_INDEX = 2;
+
+        /**
+         * Current point.
+         */
+        private final double[] point;
+
+        /**
+         * Residual of every sample at the current point.
+         */
+        private final double[] residuals;
+
+        /**
+         * Values of e^(d*x3) at the current point.
+         */
+        private double[] exps;
+
+        /**
+         * Values of e^(d*x3) for the last scored move.
+         */
+        private double[] candidateExps;
+
+        /**
+         * Values of 1+cos(e*x4) at the current point.
+         */
+        private double[] cosines;
+
+        /**
+         * Values of 1+cos(e*x4) for the last scored move.
+         */
+        private double[] candidateCosines;
+
+        /**
+         * Sum of residuals times the term multiplied by each linear
+         * constant, at the current point.
+         */
+        private final double[] products;
+
+        /**
+         * Sum of squares of the term multiplied by each linear constant.
+         */
+        private final double[] squares;
+
+        /**
+         * Value at the current point.
+         */
+        private double value;
+
+        /**
+         * Value after the last scored move.
+         */
+        private double candidateValue;
+
+        /**
+         * Index of the variable changed by the last scored move,
+         * {@code -1} if there is no such move.
+         */
+        private int candidateIndex = -1;
+
+        /**
+         * Delta of the last scored move.
+         */
+        private double candidateDelta;
+
+        /**
+         * Number of moves accepted since the last recalculation.
+         */
+        private int accepted;
+
+        /**
+         * Default constructor that calculates all cached values.
+         *
+         * @param point at which the evaluator starts.
+         */
+        Evaluator(double[] point) {
+            int size = dataset.size();
+
+            this.point = Arrays.copyOf(point, point.length);
+            this.residuals = new double[size];
+            this.exps = new double[size];
+            this.candidateExps = new double[size];
+            this.cosines = new double[size];
+            this.candidateCosines = new double[size];
+            this.products = new double[point.length];
+            this.squares = new double[point.length];
+
+            for (int index : new int[] {0, 1, 5}) {
+                double[] column = column(index);
+                double sum = 0;
+
+                for (int i = 0; i < size; i++) {
+                    sum += column[i] * column[i];
+                }
+
+                squares[index] = sum;
+            }
+
+            resync();
+        }
+
+        @Override
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        public double delta(VariableMove move) {
+            double delta = move.delta;
+
+            switch (move.index) {
+                case 0:
+                case 1:
+                case 2:
+                case 5:
+                    candidateValue = value + delta * (2 * products[move.index] + delta * squares[move.index]);
+                    break;
+                case 3:
+                    candidateValue = deltaExp(point[3] + delta);
+                    break;
+                case 4:
+                    candidateValue = deltaCos(point[4] + delta);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid variable index: " + move.index);
+            }
+
+            candidateIndex = move.index;
+            candidateDelta = delta;
+
+            return candidateValue - value;
+        }
+
+        @Override
+        public void accept() {
+            if (candidateIndex < 0) {
+                throw new IllegalStateException("No move was scored since the last accepted one.");
+            }
+
+            double delta = candidateDelta;
+            double c = point[C_INDEX];
+
+            switch (candidateIndex) {
+                case 3:
+                    for (int i = 0, size = residuals.length; i < size; i++) {
+                        residuals[i] += c * (candidateExps[i] - exps[i]) * cosines[i];
+                    }
+
+                    double[] tmp = exps;
+                    exps = candidateExps;
+                    candidateExps = tmp;
+                    break;
+                case 4:
+                    for (int i = 0, size = residuals.length; i < size; i++) {
+                        residuals[i] += c * exps[i] * (candidateCosines[i] - cosines[i]);
+                    }
+
+                    tmp = cosines;
+                    cosines = candidateCosines;
+                    candidateCosines = tmp;
+                    break;
+                case C_INDEX:
+                    for (int i = 0, size = residuals.length; i < size; i++) {
+                        residuals[i] += delta * exps[i] * cosines[i];
+                    }
+                    break;
+                default:
+                    double[] column = column(candidateIndex);
+
+                    for (int i = 0, size = residuals.length; i < size; i++) {
+                        residuals[i] += delta * column[i];
+                    }
+            }
+
+            point[candidateIndex] += delta;
+            candidateIndex = -1;
+
+            if (++accepted == RESYNC_INTERVAL) {
+                resync();
+            } else {
+                updateSums();
+            }
+        }
+
+        /**
+         * Provides the sampled column multiplied by the linear constant with the given {@code index}.
+         *
+         * @param index of {@code a}, {@code b} or {@code f}.
+         *
+         * @return column multiplied by the constant.
+         */
+        private double[] column(int index) {
+            switch (index) {
+                case 0:
+                    return dataset.x1;
+                case 1:
+                    return dataset.x1Cubedx2;
+                case 5:
+                    return dataset.x4x5Squared;
+                default:
+                    throw new IllegalArgumentException("Invalid linear variable index: " + index);
+            }
+        }
+
+        /**
+         * Calculates the value after {@code d} changes, keeping the new exponential terms.
+         *
+         * @param d new value of the constant.
+         *
+         * @return value after the change.
+         */
+        private double deltaExp(double d) {
+            double[] x3 = dataset.x3;
+            double c = point[C_INDEX], sum = 0;
+
+            for (int i = 0, size = residuals.length; i < size; i++) {
+                double exp = Math.exp(d * x3[i]);
+                double result = residuals[i] + c * (exp - exps[i]) * cosines[i];
+                candidateExps[i] = exp;
+                sum += result * result;
+            }
+
+            return sum;
+        }
+
+        /**
+         * Calculates the value after {@code e} changes, keeping the new cosine terms.
+         *
+         * @param e new value of the constant.
+         *
+         * @return value after the change.
+         */
+        private double deltaCos(double e) {
+            double[] x4 = dataset.x4;
+            double c = point[C_INDEX], sum = 0;
+
+            for (int i = 0, size = residuals.length; i < size; i++) {
+                double cos = 1 + Math.cos(e * x4[i]);
+                double result = residuals[i] + c * exps[i] * (cos - cosines[i]);
+                candidateCosines[i] = cos;
+                sum += result * result;
+            }
+
+            return sum;
+        }
+
+        /**
+         * Recalculates the value and the sums of products and squares from the residuals.
+         */
+        private void updateSums() {
+            double[] x1 = dataset.x1;
+            double[] x1Cubedx2 = dataset.x1Cubedx2;
+            double[] x4x5Squared = dataset.x4x5Squared;
+            double sum = 0, a = 0, b = 0, c = 0, cSquares = 0, f = 0;
+
+            for (int i = 0, size = residuals.length; i < size; i++) {
+                double result = residuals[i];
+                double term = exps[i] * cosines[i];
+
+                sum += result * result;
+                a += result * x1[i];
+                b += result * x1Cubedx2[i];
+                c += result * term;
+                cSquares += term * term;
+                f += result * x4x5Squared[i];
+            }
+
+            value = sum;
+            products[0] = a;
+            products[1] = b;
+            products[C_INDEX] = c;
+            products[5] = f;
+            squares[C_INDEX] = cSquares;
+        }
+
+        /**
+         * Calculates all cached values at the current point from scratch.
+         */
+        private void resync() {
+            double a = point[0], b = point[1], c = point[2], d = point[3], e = point[4], f = point[5];
+
+            for (int i = 0, size = residuals.length; i < size; i++) {
+                exps[i] = Math.exp(d * dataset.x3[i]);
+                cosines[i] = 1 + Math.cos(e * dataset.x4[i]);
+                residuals[i] = a * dataset.x1[i] + b * dataset.x1Cubedx2[i] + c * exps[i] * cosines[i]
+                        + f * dataset.x4x5Squared[i] - dataset.y[i];
+            }
+
+            updateSums();
+            accepted = 0;
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package hr.fer.zemris.optjava.dz3.functions;
+
+/**
+ * Keeps the state of an {@link IDeltaFunction} at a single
+ * point and scores moves from that point.
+ *
+ * @param <M> type of move used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface IDeltaEvaluator<M> {
+
+    /**
+     * Provides the function's value at the current point.
+     *
+     * @return value at the current point.
+     */
+    double getValue();
+
+    /**
+     * Calculates the change of the function's value if the given
+     * {@code move} was applied to the current point.
+     *
+     * @param move being scored.
+     *
+     * @return change of the value.
+     */
+    double delta(M move);
+
+    /**
+     * Moves the current point by applying the move last given
+     * to {@link #delta(Object)}.
+     */
+    void accept();
+}
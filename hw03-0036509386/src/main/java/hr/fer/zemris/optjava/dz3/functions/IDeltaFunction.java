@@ -0,0 +1,25 @@
+package hr.fer.zemris.optjava.dz3.functions;
+
+/**
+ * An {@link IFunction} that can calculate how its value
+ * changes when a move is applied to a point, without
+ * evaluating the whole function again.
+ *
+ * @param <M> type of move used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface IDeltaFunction<M> extends IFunction {
+
+    /**
+     * Creates an evaluator positioned at the given {@code point}.
+     * Evaluators keep cached partial results, so each thread
+     * should use its own.
+     *
+     * @param point at which the evaluator starts.
+     *
+     * @return a new evaluator.
+     */
+    IDeltaEvaluator<M> newEvaluator(double[] point);
+}
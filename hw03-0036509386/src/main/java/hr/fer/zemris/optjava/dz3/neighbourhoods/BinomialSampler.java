@@ -0,0 +1,154 @@
+package hr.fer.zemris.optjava.dz3.neighbourhoods;
+
+import java.util.Random;
+
+/**
+ * Chooses which positions of a solution change when every position
+ * changes independently with the same probability, but at least one
+ * position has to change. The number of changed positions is drawn
+ * from the binomial distribution, so only as many random values are
+ * needed as there are changed positions.
+ * <p>
+ * Every call starts from the identity permutation, so the chosen positions
+ * depend only on the random values drawn and a run resumed from a checkpoint
+ * chooses the same positions as the original run.
+ *
+ * @author Mateo Imbrišak
+ */
+
+class BinomialSampler {
+
+    /**
+     * Probability that a single position changes.
+     */
+    private final double probability;
+
+    /**
+     * Cumulative probability of changing at most {@code k + 1}
+     * positions, given that at least one position changes.
+     */
+    private double[] cumulative;
+
+    /**
+     * Permutation of all positions, the first entries
+     * are the positions chosen by the last call.
+     */
+    private int[] positions;
+
+    /**
+     * Position swapped with each of the first {@link #swapped} positions in the last call.
+     */
+    private int[] swaps;
+
+    /**
+     * Number of positions swapped in the last call.
+     */
+    private int swapped;
+
+    /**
+     * Default constructor that assigns the {@code probability}.
+     *
+     * @param probability that a single position changes.
+     */
+    BinomialSampler(double probability) {
+        this.probability = probability;
+        this.positions = new int[0];
+        this.swaps = new int[0];
+    }
+
+    /**
+     * Randomly chooses the positions that change. The chosen positions
+     * are the first entries of {@link #getPositions()}.
+     *
+     * @param size number of positions.
+     * @param rand used to generate random values.
+     *
+     * @return number of chosen positions.
+     */
+    int choose(int size, Random rand) {
+        if (size != positions.length) {
+            initialize(size);
+        } else {
+            restore();
+        }
+
+        double u = rand.nextDouble();
+        int count = 1;
+
+        while (count < size && u > cumulative[count - 1]) {
+            count++;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int j = i + rand.nextInt(size - i);
+            swap(i, j);
+            swaps[i] = j;
+        }
+
+        swapped = count;
+
+        return count;
+    }
+
+    /**
+     * Provides the positions chosen by the last call of {@link #choose(int, Random)}.
+     *
+     * @return array whose first entries are the chosen positions.
+     */
+    int[] getPositions() {
+        return positions;
+    }
+
+    /**
+     * Undoes the swaps of the last call in reverse order, so {@link #positions}
+     * is the identity permutation again. Only as many swaps are undone as
+     * positions were chosen.
+     */
+    private void restore() {
+        for (int i = swapped - 1; i >= 0; i--) {
+            swap(i, swaps[i]);
+        }
+
+        swapped = 0;
+    }
+
+    /**
+     * Swaps two entries of {@link #positions}.
+     *
+     * @param i index of the first entry.
+     * @param j index of the second entry.
+     */
+    private void swap(int i, int j) {
+        int tmp = positions[i];
+        positions[i] = positions[j];
+        positions[j] = tmp;
+    }
+
+    /**
+     * Calculates {@link #cumulative} and resets {@link #positions} for the given {@code size}.
+     *
+     * @param size number of positions.
+     */
+    private void initialize(int size) {
+        positions = new int[size];
+        swaps = new int[size];
+        swapped = 0;
+
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+
+        cumulative = new double[size];
+        double none = Math.pow(1 - probability, size);
+        double current = none;
+        double sum = 0;
+
+        for (int k = 1; k <= size; k++) {
+            current *= (double) (size - k + 1) / k * probability / (1 - probability);
+            sum += current;
+            cumulative[k - 1] = sum / (1 - none);
+        }
+
+        cumulative[size - 1] = 1;
+    }
+}
@@ -11,7 +11,7 @@ import java.util.Random;
  * @author Mateo Imbrišak
  */
 
-public class BitvectorNeighbourhood implements INeighbourhood<BitvectorSolution> {
+public class BitvectorNeighbourhood implements IUndoableNeighbourhood<BitvectorSolution> {
 
     /**
      * Probability to mutate a bit.
@@ -23,31 +23,63 @@ public class BitvectorNeighbourhood implements INeighbourhood<BitvectorSolution>
      */
     Random rand;
 
+    /**
+     * Used to choose mutated bits.
+     */
+    private final BinomialSampler sampler;
+
+    /**
+     * Number of bits flipped by the last mutation.
+     */
+    private int changed;
+
     /**
      * Default constructor that initializes {@link #rand}.
      */
     public BitvectorNeighbourhood() {
-        rand = new Random();
+        this(new Random());
+    }
+
+    /**
+     * Constructor that uses the given random generator.
+     *
+     * @param rand used to randomise mutated bits.
+     */
+    public BitvectorNeighbourhood(Random rand) {
+        this.rand = rand;
+        this.sampler = new BinomialSampler(MUTATION_PROBABILITY);
     }
 
     @Override
     public BitvectorSolution randomNeighbour(BitvectorSolution solution) {
         BitvectorSolution ret = solution.duplicate();
-        boolean changed = false;
+        mutate(ret);
 
-        for (int i = 0, size = solution.bits.length; i < size; i++) {
-            if (rand.nextDouble() <= MUTATION_PROBABILITY) {
-                ret.bits[i] = !ret.bits[i];
+        return ret;
+    }
 
-                changed = true;
-            }
-        }
+    @Override
+    public void mutate(BitvectorSolution solution) {
+        changed = sampler.choose(solution.bits.length, rand);
+        flip(solution);
+    }
 
-        if (!changed) {
-            int position = rand.nextInt(ret.bits.length - 1);
-            ret.bits[position] = !ret.bits[position];
-        }
+    @Override
+    public void undo(BitvectorSolution solution) {
+        flip(solution);
+        changed = 0;
+    }
 
-        return ret;
+    /**
+     * Flips the bits chosen by the last mutation.
+     *
+     * @param solution whose bits are flipped.
+     */
+    private void flip(BitvectorSolution solution) {
+        int[] positions = sampler.getPositions();
+
+        for (int i = 0; i < changed; i++) {
+            solution.bits[positions[i]] = !solution.bits[positions[i]];
+        }
     }
 }
@@ -0,0 +1,79 @@
+package hr.fer.zemris.optjava.dz3.neighbourhoods;
+
+import hr.fer.zemris.optjava.dz3.solutions.DoubleArraySolution;
+
+import java.util.Random;
+
+/**
+ * An implementation of {@link IMoveNeighbourhood} that changes
+ * a single value of a {@link DoubleArraySolution} by a uniformly
+ * distributed delta.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class DoubleArrayMoveNeighbourhood implements IMoveNeighbourhood<DoubleArraySolution, VariableMove> {
+
+    /**
+     * Keeps minimum and maximum value to be generated.
+     */
+    private final double[] deltas;
+
+    /**
+     * Move returned by {@link #randomMove(DoubleArraySolution)}.
+     */
+    private final VariableMove move;
+
+    /**
+     * Used to randomize the next move.
+     */
+    private final Random rand;
+
+    /**
+     * Default constructor that assigns {@link #deltas} and
+     * initializes {@link #rand}.
+     *
+     * @param deltas to be assigned.
+     */
+    public DoubleArrayMoveNeighbourhood(double[] deltas) {
+        this(deltas, new Random());
+    }
+
+    /**
+     * Constructor that assigns {@link #deltas} and
+     * uses the given random generator.
+     *
+     * @param deltas to be assigned.
+     * @param rand used to randomize the next move.
+     */
+    public DoubleArrayMoveNeighbourhood(double[] deltas, Random rand) {
+        if (deltas.length != 2) {
+            throw new IllegalArgumentException("Size of the array must be exactly two.");
+        }
+
+        this.deltas = deltas;
+        this.move = new VariableMove();
+        this.rand = rand;
+    }
+
+    @Override
+    public VariableMove randomMove(DoubleArraySolution solution) {
+        move.index = rand.nextInt(solution.values.length);
+        move.delta = deltas[0] + rand.nextDouble() * (deltas[1] - deltas[0]);
+
+        return move;
+    }
+
+    @Override
+    public void applyMove(DoubleArraySolution solution, VariableMove move) {
+        solution.values[move.index] += move.delta;
+    }
+
+    @Override
+    public DoubleArraySolution randomNeighbour(DoubleArraySolution solution) {
+        DoubleArraySolution ret = solution.duplicate();
+        applyMove(ret, randomMove(solution));
+
+        return ret;
+    }
+}
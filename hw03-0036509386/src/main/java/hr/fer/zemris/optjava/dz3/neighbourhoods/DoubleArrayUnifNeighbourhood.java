@@ -11,7 +11,7 @@ import java.util.Random;
  * @author Mateo Imbrišak
  */
 
-public class DoubleArrayUnifNeighbourhood implements INeighbourhood<DoubleArraySolution> {
+public class DoubleArrayUnifNeighbourhood implements IUndoableNeighbourhood<DoubleArraySolution> {
 
     /**
      * Probability that a value will be mutated.
@@ -28,6 +28,21 @@ public class DoubleArrayUnifNeighbourhood implements INeighbourhood<DoubleArrayS
      */
     Random rand;
 
+    /**
+     * Used to choose mutated values.
+     */
+    private final BinomialSampler sampler;
+
+    /**
+     * Values before the last mutation, in the order of the chosen positions.
+     */
+    private double[] previous;
+
+    /**
+     * Number of values changed by the last mutation.
+     */
+    private int changed;
+
     /**
      * Default constructor that assigns {@link #deltas} and
      * initializes {@link #rand}.
@@ -35,33 +50,59 @@ public class DoubleArrayUnifNeighbourhood implements INeighbourhood<DoubleArrayS
      * @param deltas to be assigned.
      */
     public DoubleArrayUnifNeighbourhood(double[] deltas) {
+        this(deltas, new Random());
+    }
+
+    /**
+     * Constructor that assigns {@link #deltas} and
+     * uses the given random generator.
+     *
+     * @param deltas to be assigned.
+     * @param rand used to randomize the next neighbour.
+     */
+    public DoubleArrayUnifNeighbourhood(double[] deltas, Random rand) {
         if (deltas.length != 2) {
             throw new IllegalArgumentException("Size of the array must be exactly two.");
         }
 
         this.deltas = deltas;
-        rand = new Random();
+        this.rand = rand;
+        this.sampler = new BinomialSampler(MUTATION_PROBABILITY);
+        this.previous = new double[0];
     }
 
     @Override
     public DoubleArraySolution randomNeighbour(DoubleArraySolution solution) {
         DoubleArraySolution ret = solution.duplicate();
-        boolean changed = false;
+        mutate(ret);
+
+        return ret;
+    }
+
+    @Override
+    public void mutate(DoubleArraySolution solution) {
+        if (previous.length != solution.values.length) {
+            previous = new double[solution.values.length];
+        }
 
-        for (int i = 0, size = solution.values.length; i < size; i++) {
-            if (rand.nextDouble() <= MUTATION_PROBABILITY) {
-                mutateValue(ret, i);
+        changed = sampler.choose(solution.values.length, rand);
+        int[] positions = sampler.getPositions();
 
-                changed = true;
-            }
+        for (int i = 0; i < changed; i++) {
+            previous[i] = solution.values[positions[i]];
+            mutateValue(solution, positions[i]);
         }
+    }
 
-        if (!changed) {
-            int position = rand.nextInt(ret.values.length - 1);
-            mutateValue(ret, position);
+    @Override
+    public void undo(DoubleArraySolution solution) {
+        int[] positions = sampler.getPositions();
+
+        for (int i = 0; i < changed; i++) {
+            solution.values[positions[i]] = previous[i];
         }
 
-        return ret;
+        changed = 0;
     }
 
     /**
@@ -0,0 +1,32 @@
+package hr.fer.zemris.optjava.dz3.neighbourhoods;
+
+/**
+ * An {@link INeighbourhood} that describes neighbours as small
+ * moves, so a neighbour can be scored before it is created.
+ *
+ * @param <T> type of solution used.
+ * @param <M> type of move used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface IMoveNeighbourhood<T, M> extends INeighbourhood<T> {
+
+    /**
+     * Generates a random move from the given {@code solution}.
+     * The returned move is only valid until the next call.
+     *
+     * @param solution from which the move is made.
+     *
+     * @return a random move.
+     */
+    M randomMove(T solution);
+
+    /**
+     * Applies the given {@code move} to the given {@code solution}.
+     *
+     * @param solution being changed.
+     * @param move being applied.
+     */
+    void applyMove(T solution, M move);
+}
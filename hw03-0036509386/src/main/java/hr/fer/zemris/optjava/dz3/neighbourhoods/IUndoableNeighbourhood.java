@@ -0,0 +1,28 @@
+package hr.fer.zemris.optjava.dz3.neighbourhoods;
+
+/**
+ * An {@link INeighbourhood} that can change a solution in place
+ * and revert the change, so an algorithm can keep reusing the
+ * same solution instead of creating a new one for every neighbour.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface IUndoableNeighbourhood<T> extends INeighbourhood<T> {
+
+    /**
+     * Changes the given {@code solution} into a random neighbour.
+     *
+     * @param solution being changed.
+     */
+    void mutate(T solution);
+
+    /**
+     * Reverts the last change made by {@link #mutate(Object)}.
+     *
+     * @param solution that was last changed.
+     */
+    void undo(T solution);
+}
@@ -0,0 +1,37 @@
+package hr.fer.zemris.optjava.dz3.neighbourhoods;
+
+/**
+ * A move that changes a single variable of a
+ * solution by adding {@link #delta} to it.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class VariableMove {
+
+    /**
+     * Index of the changed variable.
+     */
+    public int index;
+
+    /**
+     * Value added to the variable.
+     */
+    public double delta;
+
+    /**
+     * Default constructor.
+     */
+    public VariableMove() {}
+
+    /**
+     * Constructor that assigns all values.
+     *
+     * @param index of the changed variable.
+     * @param delta added to the variable.
+     */
+    public VariableMove(int index, double delta) {
+        this.index = index;
+        this.delta = delta;
+    }
+}
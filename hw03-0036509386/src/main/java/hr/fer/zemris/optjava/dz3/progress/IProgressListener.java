@@ -0,0 +1,23 @@
+package hr.fer.zemris.optjava.dz3.progress;
+
+/**
+ * An interface used to observe the progress of an optimization algorithm.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface IProgressListener<T> {
+
+    /**
+     * Called whenever the algorithm accepts a new current solution.
+     * Implementations are called from the algorithm's thread, so
+     * they should return as quickly as possible.
+     *
+     * @param iteration number of steps performed so far.
+     * @param solution that was accepted.
+     * @param temperature at which the solution was accepted.
+     */
+    void accepted(long iteration, T solution, double temperature);
+}
@@ -0,0 +1,176 @@
+package hr.fer.zemris.optjava.dz3.progress;
+
+import hr.fer.zemris.optjava.dz3.decoders.IDecoder;
+import hr.fer.zemris.optjava.dz3.solutions.SingleObjectiveSolution;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link IProgressListener} that reports at most one accepted
+ * solution per interval of iterations. Reported solutions are
+ * decoded on the algorithm's thread and handed to a background
+ * thread that writes them, so the algorithm never waits for output.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class SamplingProgressListener<T extends SingleObjectiveSolution> implements IProgressListener<T>, Closeable {
+
+    /**
+     * Time the writer sleeps when there is nothing to write.
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Used to decode reported solutions.
+     */
+    private final IDecoder<T> decoder;
+
+    /**
+     * Minimum number of iterations between two reports.
+     */
+    private final long interval;
+
+    /**
+     * Where the reports are written.
+     */
+    private final PrintStream out;
+
+    /**
+     * Reports waiting to be written.
+     */
+    private final Queue<Snapshot> queue;
+
+    /**
+     * Thread that writes the reports.
+     */
+    private final Thread writer;
+
+    /**
+     * Used to stop the {@link #writer}.
+     */
+    private volatile boolean running;
+
+    /**
+     * First iteration that can be reported.
+     */
+    private long nextSample;
+
+    /**
+     * Default constructor that assigns all values
+     * and starts the writer thread.
+     *
+     * @param decoder used to decode reported solutions.
+     * @param interval minimum number of iterations between two reports.
+     * @param out where the reports are written.
+     */
+    public SamplingProgressListener(IDecoder<T> decoder, long interval, PrintStream out) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+
+        this.decoder = decoder;
+        this.interval = interval;
+        this.out = out;
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.running = true;
+        this.writer = new Thread(this::write, "progress-writer");
+
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void accepted(long iteration, T solution, double temperature) {
+        if (iteration < nextSample) {
+            return;
+        }
+
+        nextSample = iteration + interval;
+        queue.offer(new Snapshot(iteration, decoder.decode(solution), solution.value, temperature));
+    }
+
+    /**
+     * Writes the remaining reports and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+
+        try {
+            writer.join();
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Writes reports until the listener is closed and the queue is empty.
+     */
+    private void write() {
+        while (true) {
+            Snapshot snapshot = queue.poll();
+
+            if (snapshot != null) {
+                out.println("Iteration " + snapshot.iteration + ": accepted solution: "
+                        + Arrays.toString(snapshot.point) + " with error: " + snapshot.value
+                        + " at temperature: " + snapshot.temperature);
+            } else if (running) {
+                LockSupport.parkNanos(IDLE_NANOS);
+            } else if (queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A single report of an accepted solution.
+     */
+    private static class Snapshot {
+
+        /**
+         * Iteration at which the solution was accepted.
+         */
+        private final long iteration;
+
+        /**
+         * Decoded solution.
+         */
+        private final double[] point;
+
+        /**
+         * Value of the solution.
+         */
+        private final double value;
+
+        /**
+         * Temperature at which the solution was accepted.
+         */
+        private final double temperature;
+
+        /**
+         * Default constructor that assigns all values.
+         *
+         * @param iteration at which the solution was accepted.
+         * @param point decoded solution.
+         * @param value of the solution.
+         * @param temperature at which the solution was accepted.
+         */
+        Snapshot(long iteration, double[] point, double value, double temperature) {
+            this.iteration = iteration;
+            this.point = point;
+            this.value = value;
+            this.temperature = temperature;
+        }
+    }
+}
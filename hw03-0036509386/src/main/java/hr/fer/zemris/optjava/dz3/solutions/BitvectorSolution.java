@@ -12,6 +12,11 @@ import java.util.Random;
 
 public class BitvectorSolution extends SingleObjectiveSolution{
 
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
     /**
      * Keeps the bits used to represent this solution.
      */
@@ -45,11 +50,7 @@ public class BitvectorSolution extends SingleObjectiveSolution{
         return new BitvectorSolution(Arrays.copyOf(bits, bits.length));
     }
 
-    /**
-     * Creates a copy of this solution.
-     *
-     * @return copy of this solution.
-     */
+    @Override
     public BitvectorSolution duplicate() {
         return newLikeThis();
     }
@@ -12,6 +12,11 @@ import java.util.Random;
 
 public class DoubleArraySolution extends SingleObjectiveSolution {
 
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
     /**
      * Keeps the values of this solution.
      */
@@ -45,11 +50,7 @@ public class DoubleArraySolution extends SingleObjectiveSolution {
         return new DoubleArraySolution(Arrays.copyOf(values, values.length));
     }
 
-    /**
-     * Creates a copy of this solution.
-     *
-     * @return copy of this solution.
-     */
+    @Override
     public DoubleArraySolution duplicate() {
         return newLikeThis();
     }
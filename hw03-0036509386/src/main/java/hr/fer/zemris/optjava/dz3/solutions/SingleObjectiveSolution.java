@@ -1,5 +1,7 @@
 package hr.fer.zemris.optjava.dz3.solutions;
 
+import java.io.Serializable;
+
 /**
  * A class that represents a solution
  * to a problem with single objective.
@@ -7,7 +9,12 @@ package hr.fer.zemris.optjava.dz3.solutions;
  * @author Mateo Imbrišak
  */
 
-public class SingleObjectiveSolution implements Comparable<SingleObjectiveSolution> {
+public abstract class SingleObjectiveSolution implements Comparable<SingleObjectiveSolution>, Serializable {
+
+    /**
+     * Used for serialization.
+     */
+    private static final long serialVersionUID = 1L;
 
     /**
      * Keeps the fitness value of this solution.
@@ -24,6 +31,13 @@ public class SingleObjectiveSolution implements Comparable<SingleObjectiveSoluti
      */
     public SingleObjectiveSolution() {}
 
+    /**
+     * Creates a copy of this solution.
+     *
+     * @return copy of this solution.
+     */
+    public abstract SingleObjectiveSolution duplicate();
+
     @Override
     public int compareTo(SingleObjectiveSolution o) {
         return Double.compare(fitness, o.fitness);
@@ -1,23 +1,48 @@
 package hr.fer.zemris.optjava.dz4.algorithms;
 
-import hr.fer.zemris.optjava.dz4.crossover.Crossover;
+import hr.fer.zemris.optjava.dz4.cache.FitnessCache;
+import hr.fer.zemris.optjava.dz4.crossover.ReusingCrossover;
 import hr.fer.zemris.optjava.dz4.functions.Function;
-import hr.fer.zemris.optjava.dz4.mutators.Mutator;
+import hr.fer.zemris.optjava.dz4.islands.Island;
+import hr.fer.zemris.optjava.dz4.islands.Migration;
+import hr.fer.zemris.optjava.dz4.metrics.MetricsCollector;
+import hr.fer.zemris.optjava.dz4.mutators.ReusingMutator;
 import hr.fer.zemris.optjava.dz4.selection.Selection;
 import hr.fer.zemris.optjava.dz4.solutions.DoubleArraySolution;
 import hr.fer.zemris.optjava.dz4.solutions.Solution;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
 
 /**
  * An elitist genetic algorithm that attempts to minimise
  * the given {@link Function}.
+ * <p>
+ * Children of each generation are split into chunks of {@link #CHUNK_SIZE}
+ * slots, or a single chunk if the operators are shared. Every chunk has its own
+ * crossover, mutator and random number generator seeded from a single master
+ * seed, so chunks can be created and evaluated on different threads while the
+ * result depends only on the seed. A single selection is prepared once per
+ * generation on the calling thread and shared by all chunks, which draw from
+ * it with their own generators.
+ * <p>
+ * The population is double buffered: both buffers are filled with
+ * solutions once, and every generation overwrites the solutions of the
+ * other buffer in place using {@link ReusingCrossover#cross(Object, Object, Object)}
+ * and {@link ReusingMutator#mutate(Object, Object)}.
  *
  * @author Mateo Imbrišak
  */
 
-public class ElitistGeneticAlgorithm {
+public class ElitistGeneticAlgorithm implements Island<DoubleArraySolution> {
 
     /**
      * Amount of values in array used when generating solutions.
@@ -39,6 +64,11 @@ public class ElitistGeneticAlgorithm {
      */
     private static final int BEST_TO_KEEP = 2;
 
+    /**
+     * Number of children created by each chunk.
+     */
+    private static final int CHUNK_SIZE = 16;
+
     /**
      * Number of solutions used in each population.
      */
@@ -55,27 +85,58 @@ public class ElitistGeneticAlgorithm {
     private final int maximumIterations;
 
     /**
-     * Used to perform selection on the population.
+     * Used to create the selection from a seed.
      */
-    private final Selection<Solution> selection;
+    private final LongFunction<Selection<Solution>> selections;
 
     /**
-     * Used to mutate newly created children.
+     * Used to create a mutator for each chunk from a seed.
      */
-    private final Mutator<DoubleArraySolution> mutator;
+    private final LongFunction<ReusingMutator<DoubleArraySolution>> mutators;
 
     /**
-     * Used to cross two parents and create a child.
+     * Used to create a crossover for each chunk from a seed.
      */
-    private final Crossover<DoubleArraySolution> crossover;
+    private final LongFunction<ReusingCrossover<DoubleArraySolution>> crossovers;
 
     /**
      * Used to calculate a solution's fitness.
      */
     private final Function function;
 
+    /**
+     * Number of threads used to create children.
+     */
+    private final int threads;
+
+    /**
+     * Seed from which all random values are derived.
+     */
+    private final long seed;
+
+    /**
+     * Number of children created by each chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Used to exchange solutions with other islands, {@code null} if running alone.
+     */
+    private Migration<DoubleArraySolution> migration;
+
+    /**
+     * Used to reuse the fitness of earlier children, {@code null} if not used.
+     */
+    private FitnessCache cache;
+
+    /**
+     * Used to collect statistics of the run, {@code null} if not used.
+     */
+    private MetricsCollector<DoubleArraySolution> metrics;
+
     /**
      * Default constructor that assigns all values.
+     * All children are created in a single chunk by the given operators.
      *
      * @param populationSize used to create new population every iteration.
      * @param stopThreshold stops the algorithm if this value is reached.
@@ -86,93 +147,345 @@ public class ElitistGeneticAlgorithm {
      * @param function used to calculate the fitness of every solution.
      */
     public ElitistGeneticAlgorithm(int populationSize, double stopThreshold, int maximumIterations,
-                                   Selection<Solution> selection, Mutator<DoubleArraySolution> mutator,
-                                   Crossover<DoubleArraySolution> crossover, Function function) {
+                                   Selection<Solution> selection, ReusingMutator<DoubleArraySolution> mutator,
+                                   ReusingCrossover<DoubleArraySolution> crossover, Function function) {
+        this(populationSize, stopThreshold, maximumIterations, seed -> selection, seed -> mutator,
+                seed -> crossover, function, 1, new Random().nextLong(), populationSize);
+    }
+
+    /**
+     * Constructor that creates a separate crossover and mutator for each chunk of children
+     * and creates the chunks on {@code threads} threads.
+     *
+     * @param populationSize used to create new population every iteration.
+     * @param stopThreshold stops the algorithm if this value is reached.
+     * @param maximumIterations to be performed.
+     * @param selections used to create a selection from a seed.
+     * @param mutators used to create a mutator from a seed.
+     * @param crossovers used to create a crossover from a seed.
+     * @param function used to calculate the fitness of every solution.
+     * @param threads number of threads used to create children.
+     * @param seed from which all random values are derived.
+     */
+    public ElitistGeneticAlgorithm(int populationSize, double stopThreshold, int maximumIterations,
+                                   LongFunction<Selection<Solution>> selections,
+                                   LongFunction<ReusingMutator<DoubleArraySolution>> mutators,
+                                   LongFunction<ReusingCrossover<DoubleArraySolution>> crossovers, Function function,
+                                   int threads, long seed) {
+        this(populationSize, stopThreshold, maximumIterations, selections, mutators, crossovers, function,
+                threads, seed, CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor used internally to assign all values.
+     *
+     * @param populationSize used to create new population every iteration.
+     * @param stopThreshold stops the algorithm if this value is reached.
+     * @param maximumIterations to be performed.
+     * @param selections used to create a selection from a seed.
+     * @param mutators used to create a mutator from a seed.
+     * @param crossovers used to create a crossover from a seed.
+     * @param function used to calculate the fitness of every solution.
+     * @param threads number of threads used to create children.
+     * @param seed from which all random values are derived.
+     * @param chunkSize number of children created by each chunk.
+     */
+    private ElitistGeneticAlgorithm(int populationSize, double stopThreshold, int maximumIterations,
+                                    LongFunction<Selection<Solution>> selections,
+                                    LongFunction<ReusingMutator<DoubleArraySolution>> mutators,
+                                    LongFunction<ReusingCrossover<DoubleArraySolution>> crossovers, Function function,
+                                    int threads, long seed, int chunkSize) {
+        if (BEST_TO_KEEP >= populationSize) {
+            throw new IllegalArgumentException("Number of best kept cannot be greater than population size.");
+        } else if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+
         this.populationSize = populationSize;
         this.stopThreshold = stopThreshold;
         this.maximumIterations = maximumIterations;
-        this.selection = selection;
-        this.mutator = mutator;
-        this.crossover = crossover;
+        this.selections = selections;
+        this.mutators = mutators;
+        this.crossovers = crossovers;
         this.function = function;
+        this.threads = threads;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Enables reusing the fitness of children equal to earlier ones through the given {@code cache}.
+     *
+     * @param cache used to reuse fitness values.
+     */
+    public void setFitnessCache(FitnessCache cache) {
+        this.cache = cache;
     }
 
     /**
-     * Performs the algorithm.
+     * Enables collecting statistics of the run through the given {@code metrics}.
      *
-     * @return best found solution.
+     * @param metrics used to collect statistics.
      */
+    public void setMetrics(MetricsCollector<DoubleArraySolution> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setMigration(Migration<DoubleArraySolution> migration) {
+        this.migration = migration;
+    }
+
+    @Override
     public DoubleArraySolution run() {
+        Random rand = new Random(seed);
         DoubleArraySolution[] population = new DoubleArraySolution[populationSize];
+        DoubleArraySolution[] newPopulation = new DoubleArraySolution[populationSize];
 
         for (int i = 0; i < populationSize; i++) {
-            population[i] = new DoubleArraySolution(SOLUTION_SIZE, MINIMUM_SOLUTION, MAXIMUM_SOLUTION);
+            population[i] = new DoubleArraySolution(SOLUTION_SIZE, MINIMUM_SOLUTION, MAXIMUM_SOLUTION, rand);
             function.calculateFitness(population[i]);
+            newPopulation[i] = new DoubleArraySolution(new double[SOLUTION_SIZE]);
         }
 
-        Arrays.sort(population, Collections.reverseOrder());
-        int i = 0;
+        Selection<Solution> selection = selections.apply(rand.nextLong());
+        List<Chunk> chunks = new ArrayList<>();
 
-        printBest(population, i);
+        for (int start = BEST_TO_KEEP; start < populationSize; start += chunkSize) {
+            chunks.add(new Chunk(start, Math.min(populationSize, start + chunkSize), rand));
+        }
 
-        while (stopThreshold > population[0].getFitness() && i < maximumIterations) {
-            DoubleArraySolution[] newPopulation = new DoubleArraySolution[populationSize];
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
 
-            if (BEST_TO_KEEP < populationSize) {
-                System.arraycopy(population, 0, newPopulation, 0, BEST_TO_KEEP);
-            } else {
-                throw new IllegalArgumentException("Number of best kept cannot be greater than population size.");
-            }
+        Arrays.sort(population, Collections.reverseOrder());
+        int i = 0;
 
-            int currentSize = BEST_TO_KEEP;
+        if (metrics != null) {
+            metrics.evaluated(populationSize);
+            metrics.update(i, population, population[0]);
+        }
 
-            while (currentSize < populationSize) {
-                DoubleArraySolution firstParent = (DoubleArraySolution) selection.select(population);
-                DoubleArraySolution secondParent;
+        try {
+            while (stopThreshold > population[0].getFitness() && i < maximumIterations
+                    && (migration == null || !migration.isStopped())) {
+                for (int j = 0; j < BEST_TO_KEEP; j++) {
+                    newPopulation[j].copyFrom(population[j]);
+                }
+
+                selection.prepare(population);
+
+                for (Chunk chunk : chunks) {
+                    chunk.selection = selection;
+                    chunk.population = population;
+                    chunk.newPopulation = newPopulation;
+                }
+
+                if (pool == null) {
+                    for (Chunk chunk : chunks) {
+                        chunk.call();
+                    }
+                } else {
+                    for (Future<Void> future : pool.invokeAll(chunks)) {
+                        future.get();
+                    }
+                }
+
+                if (metrics != null) {
+                    for (Chunk chunk : chunks) {
+                        metrics.evaluated(chunk.evaluations);
+                        metrics.selected(chunk.parents, chunk.selectedFitness);
+                    }
+                }
+
+                DoubleArraySolution[] swap = population;
+                population = newPopulation;
+                newPopulation = swap;
+
+                Arrays.sort(population, Collections.reverseOrder());
+                i++;
+
+                if (migration != null && migration.isDue(i)) {
+                    migrate(population);
+                }
+
+                if (metrics != null) {
+                    metrics.update(i, population, population[0]);
+                }
+            }
 
-                do {
-                    secondParent = (DoubleArraySolution) selection.select(population);
-                } while (firstParent.equals(secondParent));
+            if (metrics != null) {
+                metrics.finish(i, population, population[0]);
+            }
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Creating children failed.", exc.getCause());
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
 
-                DoubleArraySolution child = mutator.mutate(crossover.cross(firstParent, secondParent));
+        return population[0].duplicate();
+    }
 
-                newPopulation[currentSize] = child;
-                currentSize++;
-            }
+    /**
+     * Calculates the fitness of the given {@code solution},
+     * or takes it from the {@link #cache} if an equal solution was evaluated.
+     *
+     * @param solution being evaluated.
+     *
+     * @return {@code true} if the fitness was calculated, {@code false} if it was taken from the cache.
+     */
+    private boolean evaluate(DoubleArraySolution solution) {
+        if (cache == null) {
+            function.calculateFitness(solution);
+            return true;
+        }
 
-            population = newPopulation;
-            evaluate(population);
-            Arrays.sort(population, Collections.reverseOrder());
-            i++;
+        double fitness = cache.get(solution.getHash());
 
-            printBest(population, i);
+        if (Double.isNaN(fitness)) {
+            function.calculateFitness(solution);
+            cache.put(solution.getHash(), solution.getFitness());
+            return true;
         }
 
-        return population[0];
+        solution.setFitness(fitness);
+        return false;
     }
 
     /**
-     * Evaluates the given {@code population} by calling
-     * {@link Function#calculateFitness(DoubleArraySolution)}
-     * on each solution.
+     * Sends the best solutions from the sorted {@code population} to the next
+     * island and replaces its worst solutions with the ones received from
+     * the previous island, keeping the population sorted. Migrants are
+     * copied because the solutions of the population are reused.
      *
-     * @param population being evaluated.
+     * @param population sorted from the best to the worst solution.
      */
-    private void evaluate(DoubleArraySolution[] population) {
-        for (int i = 0; i < populationSize; i++) {
-            function.calculateFitness(population[i]);
+    private void migrate(DoubleArraySolution[] population) {
+        for (int i = 0, count = Math.min(migration.getCount(), populationSize); i < count; i++) {
+            migration.send(population[i].duplicate());
+        }
+
+        int slot = populationSize - 1;
+        DoubleArraySolution immigrant;
+
+        while ((immigrant = migration.receive()) != null) {
+            if (slot >= BEST_TO_KEEP) {
+                population[slot--].copyFrom(immigrant);
+            }
         }
+
+        Arrays.sort(population, Collections.reverseOrder());
     }
 
     /**
-     * Prints the best solution from the given {@code population},
-     * ti's value and the number of iteration {@code index}.
-     *
-     * @param population whose best solution will be printed.
-     * @param index represents the number of iteration.
+     * A range of slots in the next population, filled
+     * with evaluated children by its own operators.
+     * Parents are drawn from the shared selection using
+     * the chunk's own random number generator.
      */
-    private void printBest(DoubleArraySolution[] population, int index) {
-        System.out.println("Iteration " + index + " best solution: "
-                + population[0] + " with error: " + (-1 * population[0].getFitness()));
+    private class Chunk implements Callable<Void> {
+
+        /**
+         * First slot filled by this chunk.
+         */
+        private final int start;
+
+        /**
+         * Slot after the last one filled by this chunk.
+         */
+        private final int end;
+
+        /**
+         * Used to draw parents from the shared selection in this chunk.
+         */
+        private final Random rand;
+
+        /**
+         * Used to mutate children in this chunk.
+         */
+        private final ReusingMutator<DoubleArraySolution> mutator;
+
+        /**
+         * Used to cross parents in this chunk.
+         */
+        private final ReusingCrossover<DoubleArraySolution> crossover;
+
+        /**
+         * Selection prepared for the current generation, shared by all chunks.
+         */
+        private Selection<Solution> selection;
+
+        /**
+         * Population parents are selected from.
+         */
+        private DoubleArraySolution[] population;
+
+        /**
+         * Population children are placed in.
+         */
+        private DoubleArraySolution[] newPopulation;
+
+        /**
+         * Number of fitness calculations in the last call.
+         */
+        private int evaluations;
+
+        /**
+         * Number of parents selected in the last call.
+         */
+        private int parents;
+
+        /**
+         * Sum of fitness of parents selected in the last call.
+         */
+        private double selectedFitness;
+
+        /**
+         * Default constructor that assigns the range
+         * and creates operators from seeds drawn from {@code rand}.
+         *
+         * @param start first slot filled by this chunk.
+         * @param end slot after the last one filled by this chunk.
+         * @param rand used to draw seeds for the operators.
+         */
+        Chunk(int start, int end, Random rand) {
+            this.start = start;
+            this.end = end;
+            this.rand = new Random(rand.nextLong());
+            this.mutator = mutators.apply(rand.nextLong());
+            this.crossover = crossovers.apply(rand.nextLong());
+        }
+
+        @Override
+        public Void call() {
+            evaluations = 0;
+            parents = 0;
+            selectedFitness = 0;
+
+            for (int slot = start; slot < end; slot++) {
+                DoubleArraySolution firstParent = (DoubleArraySolution) selection.select(population, rand);
+                DoubleArraySolution secondParent;
+
+                do {
+                    secondParent = (DoubleArraySolution) selection.select(population, rand);
+                } while (firstParent.equals(secondParent));
+
+                DoubleArraySolution child = newPopulation[slot];
+                crossover.cross(firstParent, secondParent, child);
+                mutator.mutate(child, child);
+
+                if (evaluate(child)) {
+                    evaluations++;
+                }
+
+                parents += 2;
+                selectedFitness += firstParent.getFitness() + secondParent.getFitness();
+            }
+
+            return null;
+        }
     }
 }
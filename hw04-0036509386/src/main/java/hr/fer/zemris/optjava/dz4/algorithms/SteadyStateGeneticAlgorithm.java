@@ -1,7 +1,12 @@
 package hr.fer.zemris.optjava.dz4.algorithms;
 
+import hr.fer.zemris.optjava.dz4.cache.FitnessCache;
 import hr.fer.zemris.optjava.dz4.crossover.Crossover;
+import hr.fer.zemris.optjava.dz4.islands.Island;
+import hr.fer.zemris.optjava.dz4.islands.Migration;
+import hr.fer.zemris.optjava.dz4.metrics.MetricsCollector;
 import hr.fer.zemris.optjava.dz4.mutators.Mutator;
+import hr.fer.zemris.optjava.dz4.population.IndexedPopulation;
 import hr.fer.zemris.optjava.dz4.selection.Selection;
 import hr.fer.zemris.optjava.dz4.selection.TournamentSelection;
 import hr.fer.zemris.optjava.dz4.solutions.Solution;
@@ -16,12 +21,12 @@ import java.util.Arrays;
  * @author Mateo Imbrišak
  */
 
-public class SteadyStateGeneticAlgorithm {
+public class SteadyStateGeneticAlgorithm implements Island<StickBoxSolution> {
 
     /**
      * Population used in iterations.
      */
-    private StickBoxSolution[] population;
+    private final IndexedPopulation<StickBoxSolution> population;
 
     /**
      * Error threshold used to stop the algorithm when reached.
@@ -60,6 +65,21 @@ public class SteadyStateGeneticAlgorithm {
      */
     private final boolean p;
 
+    /**
+     * Used to exchange solutions with other islands, {@code null} if running alone.
+     */
+    private Migration<StickBoxSolution> migration;
+
+    /**
+     * Used to reuse the fitness of earlier children, {@code null} if not used.
+     */
+    private FitnessCache cache;
+
+    /**
+     * Used to collect statistics of the run, {@code null} if not used.
+     */
+    private MetricsCollector<StickBoxSolution> metrics;
+
     /**
      * Default constructor that assigns all values.
      *
@@ -75,7 +95,7 @@ public class SteadyStateGeneticAlgorithm {
     public SteadyStateGeneticAlgorithm(StickBoxSolution[] population, int stopThreshold, int maximumIterations,
                                        Selection<Solution> selection, TournamentSelection worstSelection, boolean p,
                                        Mutator<StickBoxSolution> mutator, Crossover<StickBoxSolution> crossover) {
-        this.population = population;
+        this.population = new IndexedPopulation<>(population);
         this.stopThreshold = stopThreshold;
         this.maximumIterations = maximumIterations;
         this.selection = selection;
@@ -86,63 +106,139 @@ public class SteadyStateGeneticAlgorithm {
     }
 
     /**
-     * Executes the algorithm.
+     * Enables reusing the fitness of children equal to earlier ones through the given
+     * {@code cache}. Children equal to a solution in the population are discarded.
      *
-     * @return best found solution.
+     * @param cache used to reuse fitness values.
      */
-    public StickBoxSolution run() {
-        Arrays.sort(population);
+    public void setFitnessCache(FitnessCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Enables collecting statistics of the run through the given {@code metrics}.
+     *
+     * @param metrics used to collect statistics.
+     */
+    public void setMetrics(MetricsCollector<StickBoxSolution> metrics) {
+        this.metrics = metrics;
+    }
 
-        StickBoxSolution bestSolution = population[0];
+    @Override
+    public void setMigration(Migration<StickBoxSolution> migration) {
+        this.migration = migration;
+    }
 
-        System.out.println("Found new best solution. Length: " + bestSolution.getFitness());
+    @Override
+    public StickBoxSolution run() {
+        StickBoxSolution[] solutions = population.getSolutions();
+        StickBoxSolution bestSolution = population.getLowest();
         int i = 0;
 
-        while (stopThreshold <= bestSolution.getFitness() && i < maximumIterations) {
-            StickBoxSolution firstParent = (StickBoxSolution) selection.select(population);
+        if (metrics != null) {
+            metrics.evaluated(solutions.length);
+            metrics.update(i, solutions, bestSolution);
+        }
+
+        while (stopThreshold <= bestSolution.getFitness() && i < maximumIterations
+                && (migration == null || !migration.isStopped())) {
+            selection.prepare(solutions);
+            StickBoxSolution firstParent = (StickBoxSolution) selection.select(solutions);
             StickBoxSolution secondParent;
 
             do {
-                secondParent = (StickBoxSolution) selection.select(population);
+                secondParent = (StickBoxSolution) selection.select(solutions);
             } while (firstParent.equals(secondParent));
 
             StickBoxSolution child = mutator.mutate(crossover.cross(firstParent, secondParent));
+            boolean duplicate = false;
+            boolean evaluated = true;
+
+            if (cache != null) {
+                duplicate = population.containsEqual(child);
+                double fitness = cache.get(child.getHash());
+
+                if (Double.isNaN(fitness)) {
+                    cache.put(child.getHash(), child.getFitness());
+                } else {
+                    child.setFitness(fitness);
+                    evaluated = false;
+                }
+            }
 
-            StickBoxSolution loser = (StickBoxSolution) worstSelection.select(population);
+            if (metrics != null) {
+                metrics.selected(2, firstParent.getFitness() + secondParent.getFitness());
+                metrics.evaluated(evaluated ? 1 : 0);
+            }
 
-            if (!p) {
-                swap(population, child, loser);
-            } else {
-                if (child.getFitness() >= loser.getFitness()) {
-                    swap(population, child, loser);
+            StickBoxSolution loser = (StickBoxSolution) worstSelection.select(solutions);
+
+            if (!duplicate) {
+                if (!p) {
+                    population.replace(loser, child);
+                } else if (child.getFitness() >= loser.getFitness()) {
+                    population.replace(loser, child);
                 }
             }
 
             if (child.getFitness() < bestSolution.getFitness()) {
                 bestSolution = child;
-                System.out.println("Found new best solution. Length: " + bestSolution.getFitness());
             }
 
-            Arrays.sort(population);
             i++;
+
+            if (migration != null && migration.isDue(i)) {
+                StickBoxSolution immigrant = migrate();
+
+                if (immigrant != null && immigrant.getFitness() < bestSolution.getFitness()) {
+                    bestSolution = immigrant;
+                }
+            }
+
+            if (metrics != null) {
+                metrics.update(i, solutions, bestSolution);
+            }
+        }
+
+        if (metrics != null) {
+            metrics.finish(i, solutions, bestSolution);
         }
 
         return bestSolution;
     }
 
     /**
-     * Swaps the {@code loser} with {@code winner} in the given {@code population}.
+     * Sends copies of the best solutions to the next island and replaces
+     * the worst solutions with the ones received from the previous island,
+     * skipping those equal to a solution already in the population.
+     * Copies are sent because solutions calculate their columns lazily,
+     * so a shared solution would be modified by both islands.
      *
-     * @param population where {@code winner} will be inserted.
-     * @param winner being inserted.
-     * @param loser being replaced.
+     * @return best received solution, or {@code null} if none were received.
      */
-    private void swap(StickBoxSolution[] population, StickBoxSolution winner, StickBoxSolution loser) {
-        for (int i = 0, size = population.length; i < size; i++) {
-            if (population[i].equals(loser)) {
-                population[i] = winner;
-                return;
+    private StickBoxSolution migrate() {
+        StickBoxSolution[] sorted = Arrays.copyOf(population.getSolutions(), population.size());
+        Arrays.sort(sorted);
+
+        for (int i = 0, count = Math.min(migration.getCount(), sorted.length); i < count; i++) {
+            migration.send(sorted[i].duplicate());
+        }
+
+        StickBoxSolution best = null;
+        StickBoxSolution immigrant;
+
+        while ((immigrant = migration.receive()) != null) {
+            if (population.containsEqual(immigrant)) {
+                continue;
+            }
+
+            population.replace(population.getHighest(), immigrant);
+
+            if (best == null || immigrant.getFitness() < best.getFitness()) {
+                best = immigrant;
             }
         }
+
+        return best;
     }
 }
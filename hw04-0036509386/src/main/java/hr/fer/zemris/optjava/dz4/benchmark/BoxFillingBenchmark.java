@@ -0,0 +1,201 @@
+package hr.fer.zemris.optjava.dz4.benchmark;
+
+import hr.fer.zemris.optjava.dz4.algorithms.SteadyStateGeneticAlgorithm;
+import hr.fer.zemris.optjava.dz4.crossover.StickBoxCrossover;
+import hr.fer.zemris.optjava.dz4.islands.IslandModel;
+import hr.fer.zemris.optjava.dz4.mutators.StickBoxMutator;
+import hr.fer.zemris.optjava.dz4.packing.PackingStrategy;
+import hr.fer.zemris.optjava.dz4.selection.TournamentSelection;
+import hr.fer.zemris.optjava.dz4.solutions.StickBoxSolution;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A program that runs {@link SteadyStateGeneticAlgorithm} on instances generated by
+ * {@link StickInstanceGenerator} and records how close it gets to the known optimum.
+ * <p>
+ * Every combination of instance size, number of islands and run is executed once,
+ * stopping as soon as the optimal length is reached. Run {@code r} generates its
+ * instance and initial population from seed {@code r}, so all island counts
+ * are compared on the same instances. Each run is written as a line of CSV.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class BoxFillingBenchmark {
+
+    /**
+     * Number of solutions in each tournament.
+     */
+    private static final int TOURNAMENT_SIZE = 3;
+
+    /**
+     * Default percentage of sticks moved when mutating solutions.
+     */
+    private static final double DEFAULT_MUTATION_FACTOR = 0.01;
+
+    /**
+     * Number of iterations between migrations when running islands.
+     */
+    private static final int MIGRATION_INTERVAL = 1000;
+
+    /**
+     * Number of solutions each island sends in a migration.
+     */
+    private static final int MIGRANTS = 2;
+
+    /**
+     * Header of the written CSV file.
+     */
+    private static final String HEADER = "sticks,optimum,seed,islands,packing,population,iterations,"
+            + "reached,seconds,length,gap";
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private BoxFillingBenchmark() {}
+
+    /**
+     * Used to start the program.
+     *
+     * @param args at least 5 arguments.
+     *             path to the CSV file being written
+     *             comma separated optimal lengths of generated instances
+     *             number of runs for each configuration
+     *             population size of each island
+     *             maximum number of iterations of each island
+     *             optionally followed by "islands:k1,k2,..." with the numbers of islands to compare,
+     *             "packing:next", "packing:first" or "packing:best"
+     *             and "mutation:f" with the percentage of sticks to move when mutating solutions
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.out.println("Program takes at least 5 parameters.");
+            return;
+        }
+
+        int[] optima = parseList(args[1]);
+        int runs = Integer.parseInt(args[2]);
+        int populationSize = Integer.parseInt(args[3]);
+        int maxIter = Integer.parseInt(args[4]);
+        int[] islandCounts = {1};
+        PackingStrategy packing = PackingStrategy.NEXT_FIT;
+        double mutationFactor = DEFAULT_MUTATION_FACTOR;
+
+        for (int i = 5; i < args.length; i++) {
+            if (args[i].startsWith("islands:")) {
+                islandCounts = parseList(args[i].replace("islands:", ""));
+            } else if (args[i].startsWith("packing:")) {
+                try {
+                    packing = PackingStrategy.valueOf(args[i].replace("packing:", "")
+                            .toUpperCase(Locale.ROOT) + "_FIT");
+                } catch (IllegalArgumentException exc) {
+                    System.err.println("Unknown packing strategy.");
+                    return;
+                }
+            } else if (args[i].startsWith("mutation:")) {
+                mutationFactor = Double.parseDouble(args[i].replace("mutation:", ""));
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
+
+        if (Arrays.stream(optima).anyMatch(value -> value < 2)) {
+            System.err.println("Optimal lengths must be at least 2.");
+            return;
+        } else if (Arrays.stream(islandCounts).anyMatch(value -> value < 1)) {
+            System.err.println("Numbers of islands must be positive.");
+            return;
+        } else if (populationSize < TOURNAMENT_SIZE) {
+            System.err.println("Population size must be at least " + TOURNAMENT_SIZE + ".");
+            return;
+        }
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(args[0])))) {
+            writer.println(HEADER);
+
+            for (int optimum : optima) {
+                for (int seed = 0; seed < runs; seed++) {
+                    for (int islands : islandCounts) {
+                        String line = run(optimum, seed, islands, packing, populationSize, maxIter,
+                                mutationFactor);
+
+                        writer.println(line);
+                        writer.flush();
+                        System.out.println(line);
+                    }
+                }
+            }
+        } catch (IOException exc) {
+            System.err.println("Error while writing file.");
+        }
+    }
+
+    /**
+     * Performs a single run on a generated instance.
+     *
+     * @param optimum optimal length of the generated instance.
+     * @param seed used to generate the instance, the initial population and the operators.
+     * @param islands number of islands.
+     * @param packing used to pack the sticks into columns.
+     * @param populationSize population size of each island.
+     * @param maxIter maximum number of iterations of each island.
+     * @param mutationFactor percentage of sticks to move when mutating solutions.
+     *
+     * @return line of CSV describing the run.
+     */
+    private static String run(int optimum, long seed, int islands, PackingStrategy packing, int populationSize,
+                              int maxIter, double mutationFactor) {
+        Random rand = new Random(seed);
+        int[] sticks = StickInstanceGenerator.generate(optimum, rand);
+        List<SteadyStateGeneticAlgorithm> algorithms = new ArrayList<>(islands);
+
+        for (int island = 0; island < islands; island++) {
+            StickBoxSolution[] population = new StickBoxSolution[populationSize];
+
+            for (int i = 0; i < populationSize; i++) {
+                int[] permutation = Arrays.copyOf(sticks, sticks.length);
+                StickInstanceGenerator.shuffle(permutation, rand);
+                population[i] = new StickBoxSolution(permutation, packing);
+            }
+
+            algorithms.add(new SteadyStateGeneticAlgorithm(population, optimum + 1, maxIter,
+                    new TournamentSelection(TOURNAMENT_SIZE, new Random(rand.nextLong())),
+                    new TournamentSelection(TOURNAMENT_SIZE, new Random(rand.nextLong())), false,
+                    new StickBoxMutator(mutationFactor, new Random(rand.nextLong())),
+                    new StickBoxCrossover(new Random(rand.nextLong()))));
+        }
+
+        long start = System.nanoTime();
+        StickBoxSolution solution = islands == 1 ? algorithms.get(0).run()
+                : new IslandModel<>(algorithms, MIGRATION_INTERVAL, MIGRANTS, Comparator.naturalOrder()).run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int length = (int) solution.getFitness();
+
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%s,%d,%d,%b,%.3f,%d,%.4f", sticks.length, optimum, seed,
+                islands, packing, populationSize, maxIter, length == optimum, seconds, length,
+                (double) (length - optimum) / optimum);
+    }
+
+    /**
+     * Parses a comma separated list of integers.
+     *
+     * @param list being parsed.
+     *
+     * @return parsed integers.
+     */
+    private static int[] parseList(String list) {
+        return Arrays.stream(list.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,111 @@
+package hr.fer.zemris.optjava.dz4.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A program that generates stick packing instances with a known optimal length.
+ * <p>
+ * Every column is filled to exactly {@link #HEIGHT} by cutting it into three random
+ * sticks of at least {@link #MINIMUM_STICK}, after which all sticks are shuffled.
+ * The total height of the sticks then equals the number of columns times
+ * {@link #HEIGHT}, so no packing can use fewer columns than were generated and
+ * the generated packing uses exactly that many. Such triplets are hard for
+ * greedy packing, which rarely recreates the exact triples.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class StickInstanceGenerator {
+
+    /**
+     * Height of each column.
+     */
+    private static final int HEIGHT = 20;
+
+    /**
+     * Minimum length of a generated stick.
+     */
+    private static final int MINIMUM_STICK = 3;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private StickInstanceGenerator() {}
+
+    /**
+     * Used to start the program.
+     *
+     * @param args exactly 3 arguments.
+     *             path to the file being written
+     *             number of columns in the optimal packing
+     *             seed used to generate the instance
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.out.println("Program takes exactly 3 parameters.");
+            return;
+        }
+
+        int columns = Integer.parseInt(args[1]);
+
+        if (columns < 1) {
+            System.err.println("Number of columns must be positive.");
+            return;
+        }
+
+        int[] sticks = generate(columns, new Random(Long.parseLong(args[2])));
+
+        try {
+            Files.writeString(Paths.get(args[0]), Arrays.toString(sticks) + System.lineSeparator());
+        } catch (IOException exc) {
+            System.err.println("Error while writing file.");
+            return;
+        }
+
+        System.out.println("Generated " + sticks.length + " sticks. Optimal length: " + columns);
+    }
+
+    /**
+     * Generates sticks that fill exactly {@code columns} columns, in random order.
+     *
+     * @param columns number of columns in the optimal packing.
+     * @param rand used to generate random values.
+     *
+     * @return shuffled sticks.
+     */
+    public static int[] generate(int columns, Random rand) {
+        int[] sticks = new int[3 * columns];
+
+        for (int column = 0; column < columns; column++) {
+            int first = MINIMUM_STICK + rand.nextInt(HEIGHT - 3 * MINIMUM_STICK + 1);
+            int second = MINIMUM_STICK + rand.nextInt(HEIGHT - first - 2 * MINIMUM_STICK + 1);
+
+            sticks[3 * column] = first;
+            sticks[3 * column + 1] = second;
+            sticks[3 * column + 2] = HEIGHT - first - second;
+        }
+
+        shuffle(sticks, rand);
+
+        return sticks;
+    }
+
+    /**
+     * Shuffles the given {@code array} in place.
+     *
+     * @param array being shuffled.
+     * @param rand used to generate random values.
+     */
+    public static void shuffle(int[] array, Random rand) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+}
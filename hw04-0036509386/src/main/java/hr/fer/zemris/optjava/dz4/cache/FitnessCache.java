@@ -0,0 +1,254 @@
+package hr.fer.zemris.optjava.dz4.cache;
+
+/**
+ * A bounded cache of fitness values keyed by the 64-bit {@link Zobrist} hash
+ * of a solution, safe to use from multiple threads.
+ * <p>
+ * Entries are split into {@link #STRIPES} independently locked stripes, and
+ * each stripe evicts entries with the CLOCK algorithm, which keeps entries
+ * read since the hand last passed them. Solutions are identified only by
+ * their hash, so the cache relies on 64-bit hashes not colliding.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class FitnessCache {
+
+    /**
+     * Number of independently locked stripes, a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Number of bits of the hash used to pick a stripe.
+     */
+    private static final int STRIPE_BITS = Integer.numberOfTrailingZeros(STRIPES);
+
+    /**
+     * Stripes holding the entries.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Default constructor that creates an empty cache.
+     *
+     * @param capacity maximum number of cached fitness values.
+     */
+    public FitnessCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+
+        this.stripes = new Stripe[STRIPES];
+        int stripeCapacity = (capacity + STRIPES - 1) / STRIPES;
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * Provides the fitness cached for the given {@code hash}.
+     *
+     * @param hash of the solution.
+     *
+     * @return cached fitness, or {@link Double#NaN} if there is none.
+     */
+    public double get(long hash) {
+        Stripe stripe = stripeFor(hash);
+
+        synchronized (stripe) {
+            return stripe.get(hash);
+        }
+    }
+
+    /**
+     * Caches the {@code fitness} of the solution with the given {@code hash}.
+     *
+     * @param hash of the solution.
+     * @param fitness of the solution.
+     */
+    public void put(long hash, double fitness) {
+        Stripe stripe = stripeFor(hash);
+
+        synchronized (stripe) {
+            stripe.put(hash, fitness);
+        }
+    }
+
+    /**
+     * Picks the stripe using the highest bits of the {@code hash},
+     * since the lowest are used within the stripe.
+     *
+     * @param hash of the solution.
+     *
+     * @return stripe holding the hash.
+     */
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> (Long.SIZE - STRIPE_BITS))];
+    }
+
+    /**
+     * Entries of one stripe, kept in a ring swept by the CLOCK hand and found
+     * through an open addressing index of ring slots.
+     */
+    private static class Stripe {
+
+        /**
+         * Hashes of the cached solutions, by ring slot.
+         */
+        private final long[] keys;
+
+        /**
+         * Cached fitness values, by ring slot.
+         */
+        private final double[] values;
+
+        /**
+         * Whether each entry was read since the hand last passed it.
+         */
+        private final boolean[] referenced;
+
+        /**
+         * Linear probing table holding ring slots increased by one, {@code 0} if empty.
+         */
+        private final int[] index;
+
+        /**
+         * Used to wrap positions in {@link #index}.
+         */
+        private final int mask;
+
+        /**
+         * Number of entries.
+         */
+        private int size;
+
+        /**
+         * Position of the CLOCK hand in the ring.
+         */
+        private int hand;
+
+        /**
+         * Default constructor that creates an empty stripe.
+         *
+         * @param capacity maximum number of entries.
+         */
+        Stripe(int capacity) {
+            int indexSize = Integer.highestOneBit(Math.max(1, 2 * capacity - 1)) << 1;
+
+            this.keys = new long[capacity];
+            this.values = new double[capacity];
+            this.referenced = new boolean[capacity];
+            this.index = new int[indexSize];
+            this.mask = indexSize - 1;
+        }
+
+        /**
+         * Provides the fitness cached for the given {@code hash}.
+         *
+         * @param hash of the solution.
+         *
+         * @return cached fitness, or {@link Double#NaN} if there is none.
+         */
+        double get(long hash) {
+            int position = find(hash);
+
+            if (position < 0) {
+                return Double.NaN;
+            }
+
+            int slot = index[position] - 1;
+            referenced[slot] = true;
+
+            return values[slot];
+        }
+
+        /**
+         * Caches the {@code fitness} for the given {@code hash},
+         * evicting an entry if the stripe is full.
+         *
+         * @param hash of the solution.
+         * @param fitness of the solution.
+         */
+        void put(long hash, double fitness) {
+            int position = find(hash);
+
+            if (position >= 0) {
+                values[index[position] - 1] = fitness;
+                return;
+            }
+
+            int slot;
+
+            if (size < keys.length) {
+                slot = size++;
+            } else {
+                while (referenced[hand]) {
+                    referenced[hand] = false;
+                    hand = (hand + 1) % keys.length;
+                }
+
+                slot = hand;
+                hand = (hand + 1) % keys.length;
+                remove(find(keys[slot]));
+            }
+
+            keys[slot] = hash;
+            values[slot] = fitness;
+            referenced[slot] = false;
+
+            position = (int) hash & mask;
+
+            while (index[position] != 0) {
+                position = (position + 1) & mask;
+            }
+
+            index[position] = slot + 1;
+        }
+
+        /**
+         * Finds the position of the given {@code hash} in the {@link #index}.
+         *
+         * @param hash being searched for.
+         *
+         * @return position in the index, or {@code -1} if the hash isn't cached.
+         */
+        private int find(long hash) {
+            int position = (int) hash & mask;
+
+            while (index[position] != 0) {
+                if (keys[index[position] - 1] == hash) {
+                    return position;
+                }
+
+                position = (position + 1) & mask;
+            }
+
+            return -1;
+        }
+
+        /**
+         * Clears the given {@code position} of the {@link #index} and shifts
+         * back the following entries so every entry stays reachable.
+         *
+         * @param position being cleared.
+         */
+        private void remove(int position) {
+            index[position] = 0;
+            int next = (position + 1) & mask;
+
+            while (index[next] != 0) {
+                int home = (int) keys[index[next] - 1] & mask;
+
+                if (((next - home) & mask) >= ((next - position) & mask)) {
+                    index[position] = index[next];
+                    index[next] = 0;
+                    position = next;
+                }
+
+                next = (next + 1) & mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package hr.fer.zemris.optjava.dz4.cache;
+
+/**
+ * Provides Zobrist keys used to hash solutions. The hash of a solution
+ * is the {@code XOR} of the keys of its values at their positions, so
+ * changing a value only requires replacing its key.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class Zobrist {
+
+    /**
+     * Offset mixed into positions so position keys differ from value keys.
+     */
+    private static final long POSITION_SEED = 0x2545F4914F6CDD1DL;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private Zobrist() {}
+
+    /**
+     * Provides the key of the given {@code value} at the given {@code position}.
+     *
+     * @param position of the value.
+     * @param value whose key is requested.
+     *
+     * @return key of the value at the position.
+     */
+    public static long key(int position, long value) {
+        return mix(value + mix(position + POSITION_SEED));
+    }
+
+    /**
+     * Provides the key of the given {@code double value} at the given {@code position}.
+     *
+     * @param position of the value.
+     * @param value whose key is requested.
+     *
+     * @return key of the value at the position.
+     */
+    public static long key(int position, double value) {
+        return key(position, Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Provides the key of the given {@code strategy}, for solutions whose
+     * fitness depends on it. It's the key of the strategy's ordinal at
+     * position {@code -1}, which no value occupies.
+     *
+     * @param strategy whose key is requested.
+     *
+     * @return key of the strategy.
+     */
+    public static long key(Enum<?> strategy) {
+        return key(-1, strategy.ordinal());
+    }
+
+    /**
+     * Scrambles the bits of the given value using the SplitMix64 finalizer.
+     *
+     * @param z value being scrambled.
+     *
+     * @return scrambled value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+}
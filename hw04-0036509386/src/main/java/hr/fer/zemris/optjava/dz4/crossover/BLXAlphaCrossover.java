@@ -11,7 +11,7 @@ import java.util.Random;
  * @author Mateo Imbrišak
  */
 
-public class BLXAlphaCrossover implements Crossover<DoubleArraySolution> {
+public class BLXAlphaCrossover implements ReusingCrossover<DoubleArraySolution> {
 
     /**
      * Used to modify selection.
@@ -30,14 +30,32 @@ public class BLXAlphaCrossover implements Crossover<DoubleArraySolution> {
      * @param alpha used to modify parts of the generated child.
      */
     public BLXAlphaCrossover(double alpha) {
+        this(alpha, new Random());
+    }
+
+    /**
+     * Constructor that assigns {@link #alpha} value
+     * and the random number generator used by this crossover.
+     *
+     * @param alpha used to modify parts of the generated child.
+     * @param rand used to generate random values.
+     */
+    public BLXAlphaCrossover(double alpha, Random rand) {
         this.alpha = alpha;
-        this.rand = new Random();
+        this.rand = rand;
     }
 
     @Override
     public DoubleArraySolution cross(DoubleArraySolution firstParent, DoubleArraySolution secondParent) {
+        DoubleArraySolution child = new DoubleArraySolution(new double[firstParent.getLength()]);
+        cross(firstParent, secondParent, child);
+
+        return child;
+    }
+
+    @Override
+    public void cross(DoubleArraySolution firstParent, DoubleArraySolution secondParent, DoubleArraySolution child) {
         int size = firstParent.getLength();
-        double[] values = new double[size];
 
         for (int i = 0; i < size; i++) {
             double min = Math.min(firstParent.getValue(i), secondParent.getValue(i));
@@ -45,9 +63,7 @@ public class BLXAlphaCrossover implements Crossover<DoubleArraySolution> {
 
             double I = max - min;
 
-            values[i] = (min - I * alpha) + rand.nextDouble() * ((max + I * alpha) - (min - I * alpha));
+            child.setValue(i, (min - I * alpha) + rand.nextDouble() * ((max + I * alpha) - (min - I * alpha)));
         }
-
-        return new DoubleArraySolution(values);
     }
 }
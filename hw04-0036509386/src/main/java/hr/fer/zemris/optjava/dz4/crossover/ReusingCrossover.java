@@ -0,0 +1,23 @@
+package hr.fer.zemris.optjava.dz4.crossover;
+
+/**
+ * A {@link Crossover} that can also write a child
+ * into an existing solution instead of creating one.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface ReusingCrossover<T> extends Crossover<T> {
+
+    /**
+     * Creates a child based on the given parents by overwriting
+     * the given {@code child}, which is distinct from both parents.
+     *
+     * @param firstParent used to generate a child.
+     * @param secondParent used to generate a child.
+     * @param child overwritten with the new child.
+     */
+    void cross(T firstParent, T secondParent, T child);
+}
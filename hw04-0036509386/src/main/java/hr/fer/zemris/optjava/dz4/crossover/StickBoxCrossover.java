@@ -29,7 +29,17 @@ public class StickBoxCrossover implements Crossover<StickBoxSolution> {
      * random value generator.
      */
     public StickBoxCrossover() {
-        this.rand = new Random();
+        this(new Random());
+    }
+
+    /**
+     * Constructor that assigns the random number
+     * generator used by this crossover.
+     *
+     * @param rand used to generate random column indexes.
+     */
+    public StickBoxCrossover(Random rand) {
+        this.rand = rand;
     }
 
     @Override
@@ -14,14 +14,9 @@ import org.apache.commons.math3.linear.RealVector;
 public class Function {
 
     /**
-     * Equation that represents this system.
+     * Samples used to calculate the error.
      */
-    private RealMatrix variables;
-
-    /**
-     * Results of the sampling.
-     */
-    private RealVector results;
+    private final PrijenosnaDataset dataset;
 
     /**
      * Default constructor that assigns all values.
@@ -30,8 +25,16 @@ public class Function {
      * @param results of the sampling.
      */
     public Function(RealMatrix variables, RealVector results) {
-        this.variables = variables;
-        this.results = results;
+        this(PrijenosnaDataset.fromMatrix(variables, results));
+    }
+
+    /**
+     * Constructor that uses already loaded samples.
+     *
+     * @param dataset containing the samples.
+     */
+    public Function(PrijenosnaDataset dataset) {
+        this.dataset = dataset;
     }
 
     /**
@@ -40,15 +43,25 @@ public class Function {
      * @param solution whose fitness is being calculated.
      */
     public void calculateFitness(DoubleArraySolution solution) {
+        double a = solution.getValue(0), b = solution.getValue(1), c = solution.getValue(2);
+        double d = solution.getValue(3), e = solution.getValue(4), f = solution.getValue(5);
+
+        double[] x1 = dataset.x1;
+        double[] x1Cubedx2 = dataset.x1Cubedx2;
+        double[] x3 = dataset.x3;
+        double[] x4 = dataset.x4;
+        double[] x4x5Squared = dataset.x4x5Squared;
+        double[] y = dataset.y;
+
         double sum = 0;
 
-        for (int i = 0, size = results.getDimension(); i < size; i++) {
-            double result = (solution.getValue(0) * variables.getEntry(i, 0) // a*x1
-                    + solution.getValue(1) * Math.pow(variables.getEntry(i, 0), 3) * variables.getEntry(i, 1) // + b*x1^3*x2
-                    + solution.getValue(2) * Math.exp(solution.getValue(3) * variables.getEntry(i, 2)) // + c*e(d*x3)
-                    * (1 + Math.cos(solution.getValue(4) * variables.getEntry(i, 3))) // * (1+cos(e*x4))
-                    + solution.getValue(5) * variables.getEntry(i, 3) * Math.pow(variables.getEntry(i, 4), 2)) // + f*x4*x5^2
-                    - results.getEntry(i);
+        for (int i = 0, size = y.length; i < size; i++) {
+            double result = a * x1[i] // a*x1
+                    + b * x1Cubedx2[i] // + b*x1^3*x2
+                    + c * Math.exp(d * x3[i]) // + c*e(d*x3)
+                    * (1 + Math.cos(e * x4[i])) // * (1+cos(e*x4))
+                    + f * x4x5Squared[i] // + f*x4*x5^2
+                    - y[i];
             sum += result * result;
         }
 
@@ -0,0 +1,156 @@
+package hr.fer.zemris.optjava.dz4.functions;
+
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A column-major store of the samples used by the transfer
+ * function regression. Terms of the model which don't depend
+ * on the constants, such as x1^3*x2 and x4*x5^2, are calculated
+ * once when the dataset is created so every evaluation of the
+ * function is a single pass over contiguous {@code arrays}.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class PrijenosnaDataset {
+
+    /**
+     * Keeps the number of variables in each sample.
+     */
+    private static final int NUMBER_OF_VARIABLES = 5;
+
+    /**
+     * Sampled values of x1.
+     */
+    final double[] x1;
+
+    /**
+     * Precalculated values of x1^3*x2.
+     */
+    final double[] x1Cubedx2;
+
+    /**
+     * Sampled values of x3.
+     */
+    final double[] x3;
+
+    /**
+     * Sampled values of x4.
+     */
+    final double[] x4;
+
+    /**
+     * Precalculated values of x4*x5^2.
+     */
+    final double[] x4x5Squared;
+
+    /**
+     * Results of the sampling.
+     */
+    final double[] y;
+
+    /**
+     * Constructor used internally to allocate all columns.
+     *
+     * @param size number of samples.
+     */
+    private PrijenosnaDataset(int size) {
+        x1 = new double[size];
+        x1Cubedx2 = new double[size];
+        x3 = new double[size];
+        x4 = new double[size];
+        x4x5Squared = new double[size];
+        y = new double[size];
+    }
+
+    /**
+     * Loads the samples from a file where each line is of form
+     * {@code [x1, x2, x3, x4, x5, y]}. Blank lines and lines
+     * starting with {@code #} are skipped.
+     *
+     * @param file containing the samples.
+     *
+     * @return a new {@code PrijenosnaDataset} with samples from the given {@code file}.
+     *
+     * @throws IOException if the file couldn't be read.
+     * @throws NumberFormatException if a value couldn't be parsed.
+     */
+    public static PrijenosnaDataset load(Path file) throws IOException {
+        List<String[]> values = new ArrayList<>();
+
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            line = line.replace("[", "").replace("]", "").trim();
+            values.add(line.split(",\\s+"));
+        }
+
+        PrijenosnaDataset dataset = new PrijenosnaDataset(values.size());
+
+        for (int i = 0, size = values.size(); i < size; i++) {
+            String[] valueArray = values.get(i);
+            double[] sample = new double[NUMBER_OF_VARIABLES];
+
+            for (int j = 0; j < NUMBER_OF_VARIABLES; j++) {
+                sample[j] = Double.parseDouble(valueArray[j]);
+            }
+
+            dataset.set(i, sample, Double.parseDouble(valueArray[NUMBER_OF_VARIABLES]));
+        }
+
+        return dataset;
+    }
+
+    /**
+     * Creates a dataset from samples kept in a {@link RealMatrix}.
+     *
+     * @param variables collected during sampling, one sample per row.
+     * @param results of the sampling.
+     *
+     * @return a new {@code PrijenosnaDataset} with the given samples.
+     */
+    public static PrijenosnaDataset fromMatrix(RealMatrix variables, RealVector results) {
+        int size = results.getDimension();
+        PrijenosnaDataset dataset = new PrijenosnaDataset(size);
+
+        for (int i = 0; i < size; i++) {
+            dataset.set(i, variables.getRow(i), results.getEntry(i));
+        }
+
+        return dataset;
+    }
+
+    /**
+     * Provides the number of samples.
+     *
+     * @return number of samples.
+     */
+    public int size() {
+        return y.length;
+    }
+
+    /**
+     * Used internally to store a single sample.
+     *
+     * @param index of the sample.
+     * @param sample values x1 through x5.
+     * @param result of the sample.
+     */
+    private void set(int index, double[] sample, double result) {
+        x1[index] = sample[0];
+        x1Cubedx2[index] = sample[0] * sample[0] * sample[0] * sample[1];
+        x3[index] = sample[2];
+        x4[index] = sample[3];
+        x4x5Squared[index] = sample[3] * sample[4] * sample[4];
+        y[index] = result;
+    }
+}
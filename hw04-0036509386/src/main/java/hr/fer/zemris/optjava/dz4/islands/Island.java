@@ -0,0 +1,26 @@
+package hr.fer.zemris.optjava.dz4.islands;
+
+/**
+ * An algorithm that can be run as an island of an {@link IslandModel}.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface Island<T> {
+
+    /**
+     * Connects this island to its neighbours. Must be called before {@link #run()}.
+     *
+     * @param migration used to exchange solutions and check whether to stop.
+     */
+    void setMigration(Migration<T> migration);
+
+    /**
+     * Executes the algorithm.
+     *
+     * @return best found solution.
+     */
+    T run();
+}
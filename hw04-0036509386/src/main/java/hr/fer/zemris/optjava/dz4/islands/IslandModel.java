@@ -0,0 +1,123 @@
+package hr.fer.zemris.optjava.dz4.islands;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs several {@link Island}s on separate threads, connected in a ring.
+ * Each island periodically sends its best solutions to the next one, and
+ * all islands stop as soon as the first one finishes.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class IslandModel<T> {
+
+    /**
+     * Number of migrations a mailbox can hold before migrants are dropped.
+     */
+    private static final int MAILBOX_MIGRATIONS = 4;
+
+    /**
+     * Islands being run.
+     */
+    private final List<? extends Island<T>> islands;
+
+    /**
+     * Number of iterations between migrations.
+     */
+    private final int interval;
+
+    /**
+     * Number of solutions sent in each migration.
+     */
+    private final int count;
+
+    /**
+     * Orders solutions from the best to the worst.
+     */
+    private final Comparator<? super T> comparator;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param islands being run.
+     * @param interval number of iterations between migrations.
+     * @param count number of solutions sent in each migration.
+     * @param comparator orders solutions from the best to the worst.
+     */
+    public IslandModel(List<? extends Island<T>> islands, int interval, int count,
+                       Comparator<? super T> comparator) {
+        if (islands.isEmpty()) {
+            throw new IllegalArgumentException("At least one island is required.");
+        } else if (interval < 1 || count < 1) {
+            throw new IllegalArgumentException("Migration interval and count must be positive.");
+        }
+
+        this.islands = islands;
+        this.interval = interval;
+        this.count = count;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Executes all islands.
+     *
+     * @return best solution found by any island.
+     */
+    public T run() {
+        int size = islands.size();
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<Mailbox<T>> mailboxes = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            mailboxes.add(new Mailbox<>(MAILBOX_MIGRATIONS * count));
+        }
+
+        List<Callable<T>> tasks = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Island<T> island = islands.get(i);
+            island.setMigration(new Migration<>(interval, count, mailboxes.get(i),
+                    mailboxes.get((i + 1) % size), stopped));
+
+            tasks.add(() -> {
+                try {
+                    return island.run();
+                } finally {
+                    stopped.set(true);
+                }
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(size);
+        T best = null;
+
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                T solution = future.get();
+
+                if (best == null || comparator.compare(solution, best) < 0) {
+                    best = solution;
+                }
+            }
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Island failed.", exc.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return best;
+    }
+}
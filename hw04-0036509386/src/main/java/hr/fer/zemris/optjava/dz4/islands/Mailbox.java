@@ -0,0 +1,85 @@
+package hr.fer.zemris.optjava.dz4.islands;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue for a single producer and a single consumer,
+ * used to pass migrants from one island to the next.
+ *
+ * @param <T> type of elements in the mailbox.
+ *
+ * @author Mateo Imbrišak
+ */
+
+class Mailbox<T> {
+
+    /**
+     * Ring buffer holding the elements.
+     */
+    private final AtomicReferenceArray<T> buffer;
+
+    /**
+     * Number of elements taken so far, written only by the consumer.
+     */
+    private final AtomicLong head;
+
+    /**
+     * Number of elements added so far, written only by the producer.
+     */
+    private final AtomicLong tail;
+
+    /**
+     * Default constructor that creates an empty mailbox.
+     *
+     * @param capacity maximum number of elements in the mailbox.
+     */
+    Mailbox(int capacity) {
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+    }
+
+    /**
+     * Adds the given {@code element} unless the mailbox is full.
+     * Must only be called by the producer.
+     *
+     * @param element being added.
+     *
+     * @return {@code true} if the element was added, {@code false} if the mailbox is full.
+     */
+    boolean offer(T element) {
+        long current = tail.get();
+
+        if (current - head.get() == buffer.length()) {
+            return false;
+        }
+
+        buffer.lazySet((int) (current % buffer.length()), element);
+        tail.lazySet(current + 1);
+
+        return true;
+    }
+
+    /**
+     * Takes the oldest element from the mailbox.
+     * Must only be called by the consumer.
+     *
+     * @return oldest element, or {@code null} if the mailbox is empty.
+     */
+    T poll() {
+        long current = head.get();
+
+        if (current == tail.get()) {
+            return null;
+        }
+
+        int index = (int) (current % buffer.length());
+        T element = buffer.get(index);
+
+        buffer.lazySet(index, null);
+        head.lazySet(current + 1);
+
+        return element;
+    }
+}
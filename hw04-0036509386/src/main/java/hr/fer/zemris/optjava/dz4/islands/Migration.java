@@ -0,0 +1,119 @@
+package hr.fer.zemris.optjava.dz4.islands;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connects an {@link Island} to its neighbours in an {@link IslandModel}.
+ * Every {@link #getInterval()} iterations the island sends its
+ * {@link #getCount()} best solutions to the next island and replaces its
+ * worst solutions with the ones it received.
+ * <p>
+ * Sent solutions are shared with the receiving island, so they
+ * must not be modified after they are sent.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class Migration<T> {
+
+    /**
+     * Number of iterations between migrations.
+     */
+    private final int interval;
+
+    /**
+     * Number of solutions sent in each migration.
+     */
+    private final int count;
+
+    /**
+     * Receives solutions from the previous island.
+     */
+    private final Mailbox<T> inbox;
+
+    /**
+     * Sends solutions to the next island.
+     */
+    private final Mailbox<T> outbox;
+
+    /**
+     * Shared by all islands, set once any island finishes.
+     */
+    private final AtomicBoolean stopped;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param interval number of iterations between migrations.
+     * @param count number of solutions sent in each migration.
+     * @param inbox receives solutions from the previous island.
+     * @param outbox sends solutions to the next island.
+     * @param stopped shared by all islands, set once any island finishes.
+     */
+    Migration(int interval, int count, Mailbox<T> inbox, Mailbox<T> outbox, AtomicBoolean stopped) {
+        this.interval = interval;
+        this.count = count;
+        this.inbox = inbox;
+        this.outbox = outbox;
+        this.stopped = stopped;
+    }
+
+    /**
+     * Provides the number of iterations between migrations.
+     *
+     * @return number of iterations between migrations.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Provides the number of solutions sent in each migration.
+     *
+     * @return number of solutions sent in each migration.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Checks whether the island should migrate after the given {@code iteration}.
+     *
+     * @param iteration number of completed iterations.
+     *
+     * @return {@code true} if the island should migrate, otherwise {@code false}.
+     */
+    public boolean isDue(int iteration) {
+        return iteration > 0 && iteration % interval == 0;
+    }
+
+    /**
+     * Checks whether any island has finished, in which case all islands should stop.
+     *
+     * @return {@code true} if the island should stop, otherwise {@code false}.
+     */
+    public boolean isStopped() {
+        return stopped.get();
+    }
+
+    /**
+     * Sends the given {@code solution} to the next island.
+     * The solution is dropped if the next island hasn't taken earlier ones.
+     *
+     * @param solution being sent.
+     */
+    public void send(T solution) {
+        outbox.offer(solution);
+    }
+
+    /**
+     * Takes a solution sent by the previous island.
+     *
+     * @return received solution, or {@code null} if there is none.
+     */
+    public T receive() {
+        return inbox.poll();
+    }
+}
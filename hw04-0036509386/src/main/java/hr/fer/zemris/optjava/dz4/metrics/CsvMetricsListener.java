@@ -0,0 +1,56 @@
+package hr.fer.zemris.optjava.dz4.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * A {@link MetricsListener} that writes every snapshot as a line of CSV.
+ * It can be shared by algorithms running on different threads.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class CsvMetricsListener implements MetricsListener, Closeable {
+
+    /**
+     * Header of the written CSV file.
+     */
+    private static final String HEADER = "source,iteration,evaluations,seconds,evaluationsPerSecond,bestFitness,"
+            + "meanFitness,fitnessDeviation,minimumFitness,maximumFitness,diversity,selectionIntensity";
+
+    /**
+     * Used to write the file.
+     */
+    private final PrintWriter writer;
+
+    /**
+     * Default constructor that creates the file and writes the header.
+     *
+     * @param path of the file being written.
+     *
+     * @throws IOException if the file can't be created.
+     */
+    public CsvMetricsListener(Path path) throws IOException {
+        this.writer = new PrintWriter(Files.newBufferedWriter(path));
+
+        writer.println(HEADER);
+    }
+
+    @Override
+    public synchronized void snapshotTaken(MetricsSnapshot snapshot) {
+        writer.println(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.1f,%s,%s,%s,%s,%s,%s,%s",
+                snapshot.getSource(), snapshot.getIteration(), snapshot.getEvaluations(), snapshot.getSeconds(),
+                snapshot.getEvaluationsPerSecond(), snapshot.getBest().getFitness(), snapshot.getMeanFitness(),
+                snapshot.getFitnessDeviation(), snapshot.getMinimumFitness(), snapshot.getMaximumFitness(),
+                snapshot.getDiversity(), snapshot.getSelectionIntensity()));
+    }
+
+    @Override
+    public synchronized void close() {
+        writer.close();
+    }
+}
@@ -0,0 +1,238 @@
+package hr.fer.zemris.optjava.dz4.metrics;
+
+import hr.fer.zemris.optjava.dz4.solutions.Solution;
+
+import java.util.Random;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Collects statistics of a running genetic algorithm. The algorithm updates
+ * primitive counters as it goes and calls {@link #update(long, Solution[], Solution)}
+ * after every iteration. Every {@code interval} iterations the collector takes a
+ * {@link MetricsSnapshot} and passes it to its {@link MetricsListener}.
+ * <p>
+ * Diversity is estimated from a fixed number of randomly sampled pairs instead of
+ * comparing all pairs. A collector must only be used from the algorithm's thread.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class MetricsCollector<T extends Solution> {
+
+    /**
+     * Identifier of the algorithm using this collector.
+     */
+    private final int source;
+
+    /**
+     * Number of iterations between snapshots.
+     */
+    private final int interval;
+
+    /**
+     * Number of pairs sampled to estimate diversity.
+     */
+    private final int samples;
+
+    /**
+     * Used to calculate the distance between two solutions.
+     */
+    private final ToDoubleBiFunction<? super T, ? super T> distance;
+
+    /**
+     * Notified with each snapshot.
+     */
+    private final MetricsListener listener;
+
+    /**
+     * Used to sample pairs of solutions.
+     */
+    private final Random rand;
+
+    /**
+     * Total number of fitness evaluations.
+     */
+    private long evaluations;
+
+    /**
+     * Number of parents selected since the previous snapshot.
+     */
+    private long selections;
+
+    /**
+     * Sum of fitness of parents selected since the previous snapshot.
+     */
+    private double selectedFitness;
+
+    /**
+     * Time of the first snapshot, in nanoseconds.
+     */
+    private long startTime;
+
+    /**
+     * Time of the previous snapshot, in nanoseconds.
+     */
+    private long previousTime;
+
+    /**
+     * Number of evaluations at the previous snapshot.
+     */
+    private long previousEvaluations;
+
+    /**
+     * Iteration of the previous snapshot, {@code -1} if none were taken.
+     */
+    private long previousIteration;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param source identifier of the algorithm using this collector.
+     * @param interval number of iterations between snapshots.
+     * @param samples number of pairs sampled to estimate diversity.
+     * @param distance used to calculate the distance between two solutions.
+     * @param listener notified with each snapshot.
+     */
+    public MetricsCollector(int source, int interval, int samples, ToDoubleBiFunction<? super T, ? super T> distance,
+                            MetricsListener listener) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+
+        this.source = source;
+        this.interval = interval;
+        this.samples = samples;
+        this.distance = distance;
+        this.listener = listener;
+        this.rand = new Random();
+        this.startTime = -1;
+        this.previousIteration = -1;
+    }
+
+    /**
+     * Records fitness evaluations.
+     *
+     * @param count number of evaluations.
+     */
+    public void evaluated(long count) {
+        evaluations += count;
+    }
+
+    /**
+     * Records selected parents.
+     *
+     * @param count number of selected parents.
+     * @param fitnessSum sum of fitness of the selected parents.
+     */
+    public void selected(long count, double fitnessSum) {
+        selections += count;
+        selectedFitness += fitnessSum;
+    }
+
+    /**
+     * Takes a snapshot if a multiple of the interval of iterations is completed.
+     *
+     * @param iteration number of completed iterations.
+     * @param population current population.
+     * @param best best solution found so far.
+     */
+    public void update(long iteration, T[] population, T best) {
+        if (iteration % interval == 0) {
+            snapshot(iteration, population, best);
+        }
+    }
+
+    /**
+     * Takes the final snapshot unless one was already taken at the given {@code iteration}.
+     *
+     * @param iteration number of completed iterations.
+     * @param population final population.
+     * @param best best solution found.
+     */
+    public void finish(long iteration, T[] population, T best) {
+        if (iteration != previousIteration) {
+            snapshot(iteration, population, best);
+        }
+    }
+
+    /**
+     * Takes a snapshot and passes it to the listener.
+     *
+     * @param iteration number of completed iterations.
+     * @param population current population.
+     * @param best best solution found so far.
+     */
+    public void snapshot(long iteration, T[] population, T best) {
+        long time = System.nanoTime();
+
+        if (startTime < 0) {
+            startTime = time;
+            previousTime = time;
+        }
+
+        int size = population.length;
+        double mean = 0;
+        double squares = 0;
+        double minimum = Double.POSITIVE_INFINITY;
+        double maximum = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < size; i++) {
+            double fitness = population[i].getFitness();
+            double delta = fitness - mean;
+
+            mean += delta / (i + 1);
+            squares += delta * (fitness - mean);
+            minimum = Math.min(minimum, fitness);
+            maximum = Math.max(maximum, fitness);
+        }
+
+        double deviation = Math.sqrt(squares / size);
+        double intensity = selections > 0 && deviation > 0
+                ? (selectedFitness / selections - mean) / deviation : 0;
+        double elapsed = (time - previousTime) / 1e9;
+        double evaluationsPerSecond = elapsed > 0 ? (evaluations - previousEvaluations) / elapsed : 0;
+
+        listener.snapshotTaken(new MetricsSnapshot(source, iteration, evaluations, (time - startTime) / 1e9,
+                evaluationsPerSecond, best, mean, deviation, minimum, maximum, diversity(population),
+                intensity));
+
+        selections = 0;
+        selectedFitness = 0;
+        previousTime = time;
+        previousEvaluations = evaluations;
+        previousIteration = iteration;
+    }
+
+    /**
+     * Estimates the diversity of the given {@code population} as the
+     * mean distance between {@link #samples} randomly picked pairs.
+     *
+     * @param population whose diversity is estimated.
+     *
+     * @return estimated diversity, or {@code 0} if there are fewer than two solutions.
+     */
+    private double diversity(T[] population) {
+        int size = population.length;
+
+        if (size < 2 || samples < 1) {
+            return 0;
+        }
+
+        double sum = 0;
+
+        for (int i = 0; i < samples; i++) {
+            int first = rand.nextInt(size);
+            int second = rand.nextInt(size - 1);
+
+            if (second >= first) {
+                second++;
+            }
+
+            sum += distance.applyAsDouble(population[first], population[second]);
+        }
+
+        return sum / samples;
+    }
+}
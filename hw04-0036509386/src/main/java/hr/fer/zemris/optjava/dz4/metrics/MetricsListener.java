@@ -0,0 +1,18 @@
+package hr.fer.zemris.optjava.dz4.metrics;
+
+/**
+ * A listener notified with a {@link MetricsSnapshot} of a running
+ * genetic algorithm by a {@link MetricsCollector}.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface MetricsListener {
+
+    /**
+     * Called on the algorithm's thread whenever a new snapshot is taken.
+     *
+     * @param snapshot of the algorithm's state.
+     */
+    void snapshotTaken(MetricsSnapshot snapshot);
+}
@@ -0,0 +1,216 @@
+package hr.fer.zemris.optjava.dz4.metrics;
+
+import hr.fer.zemris.optjava.dz4.solutions.Solution;
+
+/**
+ * Statistics of a genetic algorithm's population at a single iteration.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class MetricsSnapshot {
+
+    /**
+     * Identifier of the algorithm that took the snapshot.
+     */
+    private final int source;
+
+    /**
+     * Number of completed iterations.
+     */
+    private final long iteration;
+
+    /**
+     * Total number of fitness evaluations.
+     */
+    private final long evaluations;
+
+    /**
+     * Seconds since the first snapshot.
+     */
+    private final double seconds;
+
+    /**
+     * Fitness evaluations per second since the previous snapshot.
+     */
+    private final double evaluationsPerSecond;
+
+    /**
+     * Best solution found so far.
+     */
+    private final Solution best;
+
+    /**
+     * Mean fitness of the population.
+     */
+    private final double meanFitness;
+
+    /**
+     * Standard deviation of fitness in the population.
+     */
+    private final double fitnessDeviation;
+
+    /**
+     * Lowest fitness in the population.
+     */
+    private final double minimumFitness;
+
+    /**
+     * Highest fitness in the population.
+     */
+    private final double maximumFitness;
+
+    /**
+     * Mean distance between randomly sampled pairs of solutions.
+     */
+    private final double diversity;
+
+    /**
+     * Difference between the mean fitness of selected parents and of the population,
+     * in standard deviations of the population's fitness.
+     */
+    private final double selectionIntensity;
+
+    /**
+     * Default constructor that assigns all values.
+     *
+     * @param source identifier of the algorithm that took the snapshot.
+     * @param iteration number of completed iterations.
+     * @param evaluations total number of fitness evaluations.
+     * @param seconds since the first snapshot.
+     * @param evaluationsPerSecond since the previous snapshot.
+     * @param best solution found so far.
+     * @param meanFitness of the population.
+     * @param fitnessDeviation standard deviation of fitness in the population.
+     * @param minimumFitness in the population.
+     * @param maximumFitness in the population.
+     * @param diversity mean distance between sampled pairs of solutions.
+     * @param selectionIntensity of parent selection since the previous snapshot.
+     */
+    public MetricsSnapshot(int source, long iteration, long evaluations, double seconds, double evaluationsPerSecond,
+                           Solution best, double meanFitness, double fitnessDeviation, double minimumFitness,
+                           double maximumFitness, double diversity, double selectionIntensity) {
+        this.source = source;
+        this.iteration = iteration;
+        this.evaluations = evaluations;
+        this.seconds = seconds;
+        this.evaluationsPerSecond = evaluationsPerSecond;
+        this.best = best;
+        this.meanFitness = meanFitness;
+        this.fitnessDeviation = fitnessDeviation;
+        this.minimumFitness = minimumFitness;
+        this.maximumFitness = maximumFitness;
+        this.diversity = diversity;
+        this.selectionIntensity = selectionIntensity;
+    }
+
+    /**
+     * Provides the identifier of the algorithm that took the snapshot.
+     *
+     * @return identifier of the algorithm.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Provides the number of completed iterations.
+     *
+     * @return number of completed iterations.
+     */
+    public long getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Provides the total number of fitness evaluations.
+     *
+     * @return total number of fitness evaluations.
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Provides the number of seconds since the first snapshot.
+     *
+     * @return seconds since the first snapshot.
+     */
+    public double getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Provides the number of fitness evaluations per second since the previous snapshot.
+     *
+     * @return fitness evaluations per second.
+     */
+    public double getEvaluationsPerSecond() {
+        return evaluationsPerSecond;
+    }
+
+    /**
+     * Provides the best solution found so far. The solution may be reused
+     * by the algorithm, so it is only valid during the listener's call.
+     *
+     * @return best solution found so far.
+     */
+    public Solution getBest() {
+        return best;
+    }
+
+    /**
+     * Provides the mean fitness of the population.
+     *
+     * @return mean fitness of the population.
+     */
+    public double getMeanFitness() {
+        return meanFitness;
+    }
+
+    /**
+     * Provides the standard deviation of fitness in the population.
+     *
+     * @return standard deviation of fitness.
+     */
+    public double getFitnessDeviation() {
+        return fitnessDeviation;
+    }
+
+    /**
+     * Provides the lowest fitness in the population.
+     *
+     * @return lowest fitness in the population.
+     */
+    public double getMinimumFitness() {
+        return minimumFitness;
+    }
+
+    /**
+     * Provides the highest fitness in the population.
+     *
+     * @return highest fitness in the population.
+     */
+    public double getMaximumFitness() {
+        return maximumFitness;
+    }
+
+    /**
+     * Provides the mean distance between randomly sampled pairs of solutions.
+     *
+     * @return diversity of the population.
+     */
+    public double getDiversity() {
+        return diversity;
+    }
+
+    /**
+     * Provides the difference between the mean fitness of selected parents and of the population,
+     * in standard deviations of the population's fitness, or {@code 0} if nothing was selected.
+     *
+     * @return selection intensity since the previous snapshot.
+     */
+    public double getSelectionIntensity() {
+        return selectionIntensity;
+    }
+}
@@ -0,0 +1,22 @@
+package hr.fer.zemris.optjava.dz4.mutators;
+
+/**
+ * A {@link Mutator} that can also write a mutation
+ * into an existing solution instead of creating one.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public interface ReusingMutator<T> extends Mutator<T> {
+
+    /**
+     * Mutates the given {@code solution} by overwriting the given {@code mutation},
+     * which may be the {@code solution} itself.
+     *
+     * @param solution used to create the mutation.
+     * @param mutation overwritten with the mutated solution.
+     */
+    void mutate(T solution, T mutation);
+}
@@ -12,7 +12,7 @@ import java.util.Random;
  * @author Mateo Imbrišak
  */
 
-public class SimpleMutator implements Mutator<DoubleArraySolution> {
+public class SimpleMutator implements ReusingMutator<DoubleArraySolution> {
 
     /**
      * Upper bound for random value added to mutated solutions.
@@ -32,19 +32,34 @@ public class SimpleMutator implements Mutator<DoubleArraySolution> {
      *                   mutated solution.
      */
     public SimpleMutator(double upperBound) {
+        this(upperBound, new Random());
+    }
+
+    /**
+     * Constructor that assigns {@link #upperBound} and
+     * the random number generator used by this mutator.
+     *
+     * @param upperBound for random number to be added to the
+     *                   mutated solution.
+     * @param rand used to generate random values.
+     */
+    public SimpleMutator(double upperBound, Random rand) {
         this.upperBound = upperBound;
-        this.rand = new Random();
+        this.rand = rand;
     }
 
     @Override
     public DoubleArraySolution mutate(DoubleArraySolution solution) {
-        int size = solution.getLength();
-        double[] ret = new double[size];
+        DoubleArraySolution mutation = new DoubleArraySolution(new double[solution.getLength()]);
+        mutate(solution, mutation);
 
-        for (int i = 0; i < size; i++) {
-            ret[i] = solution.getValue(i) + rand.nextGaussian() * upperBound;
-        }
+        return mutation;
+    }
 
-        return new DoubleArraySolution(ret);
+    @Override
+    public void mutate(DoubleArraySolution solution, DoubleArraySolution mutation) {
+        for (int i = 0, size = solution.getLength(); i < size; i++) {
+            mutation.setValue(i, solution.getValue(i) + rand.nextGaussian() * upperBound);
+        }
     }
 }
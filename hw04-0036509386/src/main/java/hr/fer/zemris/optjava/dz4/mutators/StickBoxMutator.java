@@ -2,7 +2,6 @@ package hr.fer.zemris.optjava.dz4.mutators;
 
 import hr.fer.zemris.optjava.dz4.solutions.StickBoxSolution;
 
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -30,14 +29,25 @@ public class StickBoxMutator implements Mutator<StickBoxSolution> {
      * @param mutationFactor determines percentage of sticks to move.
      */
     public StickBoxMutator(double mutationFactor) {
+        this(mutationFactor, new Random());
+    }
+
+    /**
+     * Constructor that assigns {@link #mutationFactor} and
+     * the random number generator used by this mutator.
+     *
+     * @param mutationFactor determines percentage of sticks to move.
+     * @param rand used to generate random indexes.
+     */
+    public StickBoxMutator(double mutationFactor, Random rand) {
         this.mutationFactor = mutationFactor;
-        this.rand = new Random();
+        this.rand = rand;
     }
 
     @Override
     public StickBoxSolution mutate(StickBoxSolution solution) {
         int size = solution.getNumberOfSticks();
-        List<Integer> mutationList = solution.toList();
+        StickBoxSolution mutated = solution.duplicate();
 
         int toMutate = (int) Math.round(mutationFactor * size);
 
@@ -45,10 +55,9 @@ public class StickBoxMutator implements Mutator<StickBoxSolution> {
             int toRemove = rand.nextInt(size - 1);
             int toInsert = rand.nextInt(size - 1);
 
-            int removed = mutationList.remove(toRemove);
-            mutationList.add(toInsert, removed);
+            mutated.moveStick(toRemove, toInsert);
         }
 
-        return new StickBoxSolution(mutationList);
+        return mutated;
     }
 }
@@ -0,0 +1,97 @@
+package hr.fer.zemris.optjava.dz4.packing;
+
+import java.util.Arrays;
+
+/**
+ * A segment tree over {@code int} values that keeps the maximum
+ * of every range, used to find the first value of at least
+ * a given size in {@code O(log n)}.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class MaxSegmentTree {
+
+    /**
+     * Number of leaves, a power of two.
+     */
+    private final int leaves;
+
+    /**
+     * Nodes of the tree, with the root at index {@code 1}
+     * and the leaves starting at {@link #leaves}.
+     */
+    private final int[] tree;
+
+    /**
+     * Default constructor that creates a tree
+     * with {@code size} values set to {@code value}.
+     *
+     * @param size number of values.
+     * @param value initial value.
+     */
+    public MaxSegmentTree(int size, int value) {
+        int leaves = 1;
+
+        while (leaves < size) {
+            leaves <<= 1;
+        }
+
+        this.leaves = leaves;
+        this.tree = new int[2 * leaves];
+
+        Arrays.fill(tree, leaves, leaves + size, value);
+        Arrays.fill(tree, leaves + size, 2 * leaves, Integer.MIN_VALUE);
+
+        for (int node = leaves - 1; node > 0; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Provides the value at the given {@code index}.
+     *
+     * @param index of the requested value.
+     *
+     * @return value at the given {@code index}.
+     */
+    public int get(int index) {
+        return tree[leaves + index];
+    }
+
+    /**
+     * Assigns a new {@code value} at the given {@code index}.
+     *
+     * @param index of the value.
+     * @param value being assigned.
+     */
+    public void set(int index, int value) {
+        int node = leaves + index;
+        tree[node] = value;
+
+        for (node >>= 1; node > 0; node >>= 1) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Finds the lowest index whose value is at least {@code minimum}.
+     *
+     * @param minimum value being searched for.
+     *
+     * @return lowest index with a large enough value, or {@code -1} if there is none.
+     */
+    public int findFirst(int minimum) {
+        if (tree[1] < minimum) {
+            return -1;
+        }
+
+        int node = 1;
+
+        while (node < leaves) {
+            node = tree[2 * node] >= minimum ? 2 * node : 2 * node + 1;
+        }
+
+        return node - leaves;
+    }
+}
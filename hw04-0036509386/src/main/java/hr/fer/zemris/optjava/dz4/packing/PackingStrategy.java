@@ -0,0 +1,123 @@
+package hr.fer.zemris.optjava.dz4.packing;
+
+import java.util.Arrays;
+
+/**
+ * Strategies used to pack a sequence of sticks into columns of limited height.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public enum PackingStrategy {
+
+    /**
+     * Places each stick into the last column, or starts a new column if it doesn't fit.
+     */
+    NEXT_FIT {
+        @Override
+        public int pack(int[] sticks, int capacity, int[] columns) {
+            int count = 1;
+            int sum = 0;
+
+            for (int i = 0, size = sticks.length; i < size; i++) {
+                sum += sticks[i];
+
+                if (sum > capacity) {
+                    count++;
+                    sum = sticks[i];
+                }
+
+                columns[i] = count - 1;
+            }
+
+            return count;
+        }
+    },
+
+    /**
+     * Places each stick into the first column with enough room,
+     * found through a {@link MaxSegmentTree} of remaining room.
+     */
+    FIRST_FIT {
+        @Override
+        public int pack(int[] sticks, int capacity, int[] columns) {
+            int size = sticks.length;
+            MaxSegmentTree room = new MaxSegmentTree(Math.max(1, size), capacity);
+            int count = 1;
+
+            for (int i = 0; i < size; i++) {
+                int column = room.findFirst(sticks[i]);
+
+                if (column < 0) {
+                    throw new IllegalArgumentException("Stick is higher than the column.");
+                }
+
+                room.set(column, room.get(column) - sticks[i]);
+                columns[i] = column;
+                count = Math.max(count, column + 1);
+            }
+
+            return count;
+        }
+    },
+
+    /**
+     * Places each stick into the column with the least room that still fits it.
+     * Since room is a whole number no greater than the capacity, columns are kept
+     * in lists by their remaining room, which makes each placement {@code O(capacity)}.
+     */
+    BEST_FIT {
+        @Override
+        public int pack(int[] sticks, int capacity, int[] columns) {
+            int size = sticks.length;
+            int[] first = new int[capacity + 1];
+            int[] next = new int[size];
+            int[] room = new int[size];
+            int count = 0;
+
+            Arrays.fill(first, -1);
+
+            for (int i = 0; i < size; i++) {
+                int stick = sticks[i];
+
+                if (stick > capacity) {
+                    throw new IllegalArgumentException("Stick is higher than the column.");
+                }
+
+                int fit = stick;
+
+                while (fit <= capacity && first[fit] < 0) {
+                    fit++;
+                }
+
+                int column;
+
+                if (fit <= capacity) {
+                    column = first[fit];
+                    first[fit] = next[column];
+                } else {
+                    column = count++;
+                    room[column] = capacity;
+                }
+
+                room[column] -= stick;
+                next[column] = first[room[column]];
+                first[room[column]] = column;
+                columns[i] = column;
+            }
+
+            return Math.max(1, count);
+        }
+    };
+
+    /**
+     * Packs the given {@code sticks} in order and assigns the column of each stick.
+     *
+     * @param sticks being packed.
+     * @param capacity height of each column.
+     * @param columns filled with the index of the column each stick is placed into.
+     *
+     * @return number of columns used, at least {@code 1}.
+     */
+    public abstract int pack(int[] sticks, int capacity, int[] columns);
+}
@@ -1,24 +1,30 @@
 package hr.fer.zemris.optjava.dz4.part1;
 
 import hr.fer.zemris.optjava.dz4.algorithms.ElitistGeneticAlgorithm;
+import hr.fer.zemris.optjava.dz4.cache.FitnessCache;
 import hr.fer.zemris.optjava.dz4.crossover.BLXAlphaCrossover;
+import hr.fer.zemris.optjava.dz4.crossover.ReusingCrossover;
 import hr.fer.zemris.optjava.dz4.functions.Function;
+import hr.fer.zemris.optjava.dz4.functions.PrijenosnaDataset;
+import hr.fer.zemris.optjava.dz4.islands.IslandModel;
+import hr.fer.zemris.optjava.dz4.metrics.CsvMetricsListener;
+import hr.fer.zemris.optjava.dz4.metrics.MetricsCollector;
+import hr.fer.zemris.optjava.dz4.metrics.MetricsListener;
+import hr.fer.zemris.optjava.dz4.mutators.ReusingMutator;
 import hr.fer.zemris.optjava.dz4.mutators.SimpleMutator;
 import hr.fer.zemris.optjava.dz4.selection.RouletteWheelSelection;
 import hr.fer.zemris.optjava.dz4.selection.Selection;
 import hr.fer.zemris.optjava.dz4.selection.TournamentSelection;
 import hr.fer.zemris.optjava.dz4.solutions.DoubleArraySolution;
 import hr.fer.zemris.optjava.dz4.solutions.Solution;
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.ArrayRealVector;
-import org.apache.commons.math3.linear.RealMatrix;
-import org.apache.commons.math3.linear.RealVector;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
 
 /**
  * A program that attempts to find
@@ -31,14 +37,24 @@ import java.util.List;
 public class GeneticAlgorithm {
 
     /**
-     * Keeps the number of variables in the system.
+     * Alpha value used for {@link BLXAlphaCrossover}.
      */
-    private static final int NUMBER_OF_VARIABLES = 5;
+    private static final double DEFAULT_ALPHA = 0.1;
 
     /**
-     * Alpha value used for {@link BLXAlphaCrossover}.
+     * Number of generations between migrations when running islands.
      */
-    private static final double DEFAULT_ALPHA = 0.1;
+    private static final int MIGRATION_INTERVAL = 10;
+
+    /**
+     * Number of solutions each island sends in a migration.
+     */
+    private static final int MIGRANTS = 2;
+
+    /**
+     * Number of pairs sampled to estimate the diversity of a population.
+     */
+    private static final int DIVERSITY_SAMPLES = 32;
 
     /**
      * Don't let anyone instantiate this class.
@@ -48,66 +64,85 @@ public class GeneticAlgorithm {
     /**
      * Used to start the program.
      *
-     * @param args exactly 6 arguments.
+     * @param args at least 6 arguments.
      *             path to the file containing the readings
      *             size of population to be used
      *             maximum error for which the algorithm will stop when reached
      *             maximum number of iterations performed if defined error value is not reached
      *             type of selection: "rouletteWheel" or "tournament:n" where n is the number of participants
      *             sigma used for {@link SimpleMutator}
+     *             optionally followed by "threads:n" to create children on n threads
+     *             "seed:s" to make the run reproducible
+     *             "islands:k" to run k populations that exchange their best solutions
+     *             "cache:size" to reuse fitness of repeated children
+     *             and "metrics:path" to write statistics of every generation to a CSV file
+     *             instead of printing the best solutions
      */
     public static void main(String[] args) {
-        if (args.length != 6) {
-            System.err.println("Program takes exactly six arguments.");
+        if (args.length < 6) {
+            System.err.println("Program takes at least six arguments.");
             return;
         }
 
-        List<String[]> values = new ArrayList<>();
+        PrijenosnaDataset dataset;
 
         try {
-            List<String> lines = Files.readAllLines(Paths.get(args[0]));
-
-            for (String line : lines) {
-                if (line.isBlank() || line.startsWith("#")) {
-                    continue;
-                }
-
-                line = line.replace("[", "").replace("]", "");
-                values.add(line.split(",\\s+"));
-            }
+            dataset = PrijenosnaDataset.load(Paths.get(args[0]));
         } catch (IOException exc) {
             System.out.println("Couldn't open file.");
             return;
         }
 
-        int size = values.size();
-
-        double[][] variables = new double[size][NUMBER_OF_VARIABLES];
-        double[] results = new double[size];
-
-        for (int i = 0; i < size; i++) {
-            String[] valueArray = values.get(i);
-
-            for (int j = 0; j < NUMBER_OF_VARIABLES; j++) {
-                variables[i][j] = Double.parseDouble(valueArray[j]);
-            }
-
-            results[i] = Double.parseDouble(valueArray[NUMBER_OF_VARIABLES]);
-        }
-
-        RealMatrix variableMatrix = new Array2DRowRealMatrix(variables);
-        RealVector resultVector = new ArrayRealVector(results);
-
-        Function function = new Function(variableMatrix, resultVector);
+        Function function = new Function(dataset);
 
         int populationSize = Integer.parseInt(args[1]);
         double maxError = -1 * Double.parseDouble(args[2]);
         int maxIterations = Integer.parseInt(args[3]);
         double sigma = Double.parseDouble(args[5]);
+        int threads = 1;
+        int islands = 1;
+        FitnessCache cache = null;
+        String metricsPath = null;
+        long seed = new Random().nextLong();
+
+        for (int i = 6; i < args.length; i++) {
+            if (args[i].startsWith("threads:")) {
+                threads = Integer.parseInt(args[i].replace("threads:", ""));
+
+                if (threads < 1) {
+                    System.err.println("Number of threads must be at least one.");
+                    return;
+                }
+            } else if (args[i].startsWith("islands:")) {
+                islands = Integer.parseInt(args[i].replace("islands:", ""));
+
+                if (islands < 1) {
+                    System.err.println("Number of islands must be at least one.");
+                    return;
+                }
+            } else if (args[i].startsWith("cache:")) {
+                int size = Integer.parseInt(args[i].replace("cache:", ""));
+
+                if (size < 1) {
+                    System.err.println("Cache size must be positive.");
+                    return;
+                }
+
+                cache = new FitnessCache(size);
+            } else if (args[i].startsWith("metrics:")) {
+                metricsPath = args[i].replace("metrics:", "");
+            } else if (args[i].startsWith("seed:")) {
+                seed = Long.parseLong(args[i].replace("seed:", ""));
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
 
-        SimpleMutator mutator = new SimpleMutator(sigma);
-        BLXAlphaCrossover crossover = new BLXAlphaCrossover(DEFAULT_ALPHA);
-        Selection<Solution> selection;
+        LongFunction<ReusingMutator<DoubleArraySolution>> mutators = s -> new SimpleMutator(sigma, new Random(s));
+        LongFunction<ReusingCrossover<DoubleArraySolution>> crossovers = s -> new BLXAlphaCrossover(DEFAULT_ALPHA,
+                new Random(s));
+        LongFunction<Selection<Solution>> selections;
 
         if (args[4].startsWith("tournament:")) {
             String value = args[4].replace("tournament:", "");
@@ -118,17 +153,59 @@ public class GeneticAlgorithm {
                 return;
             }
 
-            selection = new TournamentSelection(n);
+            selections = s -> new TournamentSelection(n, new Random(s));
         } else if (args[4].equalsIgnoreCase("rouletteWheel")) {
-            selection = new RouletteWheelSelection();
+            selections = s -> new RouletteWheelSelection(new Random(s));
         } else {
             System.err.println("Unknown selection operator.");
             return;
         }
 
-        ElitistGeneticAlgorithm algorithm = new ElitistGeneticAlgorithm(populationSize, maxError, maxIterations,
-                selection, mutator, crossover, function);
-        DoubleArraySolution bestSolution = algorithm.run();
+        CsvMetricsListener csv = null;
+
+        if (metricsPath != null) {
+            try {
+                csv = new CsvMetricsListener(Paths.get(metricsPath));
+            } catch (IOException exc) {
+                System.err.println("Couldn't create metrics file.");
+                return;
+            }
+        }
+
+        boolean multiple = islands > 1;
+        MetricsListener listener = csv != null ? csv : snapshot -> System.out.println(
+                (multiple ? "Island " + snapshot.getSource() + " " : "") + "Iteration "
+                        + snapshot.getIteration() + " best solution: " + snapshot.getBest()
+                        + " with error: " + (-1 * snapshot.getBest().getFitness()));
+        Random seeds = new Random(seed);
+        List<ElitistGeneticAlgorithm> algorithms = new ArrayList<>(islands);
+
+        for (int i = 0; i < islands; i++) {
+            ElitistGeneticAlgorithm algorithm = new ElitistGeneticAlgorithm(populationSize, maxError, maxIterations,
+                    selections, mutators, crossovers, function, threads, islands == 1 ? seed : seeds.nextLong());
+
+            if (cache != null) {
+                algorithm.setFitnessCache(cache);
+            }
+
+            algorithm.setMetrics(new MetricsCollector<>(i, 1, DIVERSITY_SAMPLES, DoubleArraySolution::distance,
+                    listener));
+
+            algorithms.add(algorithm);
+        }
+
+        DoubleArraySolution bestSolution;
+
+        if (islands == 1) {
+            bestSolution = algorithms.get(0).run();
+        } else {
+            bestSolution = new IslandModel<>(algorithms, MIGRATION_INTERVAL, MIGRANTS,
+                    Collections.reverseOrder()).run();
+        }
+
+        if (csv != null) {
+            csv.close();
+        }
 
         System.out.println("Found solution: " + bestSolution + " with error " + (-1 * bestSolution.getFitness()));
     }
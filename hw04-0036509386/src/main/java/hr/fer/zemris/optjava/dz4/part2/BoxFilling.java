@@ -1,8 +1,14 @@
 package hr.fer.zemris.optjava.dz4.part2;
 
 import hr.fer.zemris.optjava.dz4.algorithms.SteadyStateGeneticAlgorithm;
+import hr.fer.zemris.optjava.dz4.cache.FitnessCache;
 import hr.fer.zemris.optjava.dz4.crossover.StickBoxCrossover;
+import hr.fer.zemris.optjava.dz4.islands.IslandModel;
+import hr.fer.zemris.optjava.dz4.metrics.CsvMetricsListener;
+import hr.fer.zemris.optjava.dz4.metrics.MetricsCollector;
+import hr.fer.zemris.optjava.dz4.metrics.MetricsListener;
 import hr.fer.zemris.optjava.dz4.mutators.StickBoxMutator;
+import hr.fer.zemris.optjava.dz4.packing.PackingStrategy;
 import hr.fer.zemris.optjava.dz4.selection.TournamentSelection;
 import hr.fer.zemris.optjava.dz4.solutions.StickBoxSolution;
 
@@ -10,6 +16,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 
@@ -22,6 +29,26 @@ import java.util.Random;
 
 public class BoxFilling {
 
+    /**
+     * Number of iterations between migrations when running islands.
+     */
+    private static final int MIGRATION_INTERVAL = 1000;
+
+    /**
+     * Number of solutions each island sends in a migration.
+     */
+    private static final int MIGRANTS = 2;
+
+    /**
+     * Number of iterations between statistics snapshots.
+     */
+    private static final int METRICS_INTERVAL = 1000;
+
+    /**
+     * Number of pairs sampled to estimate the diversity of a population.
+     */
+    private static final int DIVERSITY_SAMPLES = 32;
+
     /**
      * Don't let anyone instantiate this class.
      */
@@ -30,7 +57,7 @@ public class BoxFilling {
     /**
      * Used to start the program.
      *
-     * @param args exactly 8 arguments.
+     * @param args at least 8 arguments.
      *             path to the file containing stick sizes
      *             population size
      *             number of participants in tournament used to select parents
@@ -39,10 +66,14 @@ public class BoxFilling {
      *             maximum number of iterations
      *             acceptable length at which the algorithm stops
      *             percentage of sticks to move when mutating solutions
+     *             optionally followed by "packing:next", "packing:first" or "packing:best"
+     *             "islands:k" to run k populations that exchange their best solutions
+     *             "cache:size" to reuse fitness of repeated children and discard duplicates
+     *             and "metrics:path" to write statistics to a CSV file instead of printing them
      */
     public static void main(String[] args) {
-        if (args.length != 8) {
-            System.out.println("Program takes exactly 8 parameters.");
+        if (args.length < 8) {
+            System.out.println("Program takes at least 8 parameters.");
             return;
         }
 
@@ -69,6 +100,48 @@ public class BoxFilling {
         int maxIter = Integer.parseInt(args[5]);
         int acceptableLength = Integer.parseInt(args[6]);
         double mutationFactor = Double.parseDouble(args[7]);
+        PackingStrategy packing = PackingStrategy.NEXT_FIT;
+        int islands = 1;
+        FitnessCache cache = null;
+        String metricsPath = null;
+
+        for (int i = 8; i < args.length; i++) {
+            if (args[i].startsWith("packing:")) {
+                String value = args[i].replace("packing:", "");
+
+                if (value.equals("next")) {
+                    packing = PackingStrategy.NEXT_FIT;
+                } else if (value.equals("first")) {
+                    packing = PackingStrategy.FIRST_FIT;
+                } else if (value.equals("best")) {
+                    packing = PackingStrategy.BEST_FIT;
+                } else {
+                    System.err.println("Unknown packing strategy.");
+                    return;
+                }
+            } else if (args[i].startsWith("islands:")) {
+                islands = Integer.parseInt(args[i].replace("islands:", ""));
+
+                if (islands < 1) {
+                    System.err.println("Number of islands must be at least one.");
+                    return;
+                }
+            } else if (args[i].startsWith("cache:")) {
+                int size = Integer.parseInt(args[i].replace("cache:", ""));
+
+                if (size < 1) {
+                    System.err.println("Cache size must be positive.");
+                    return;
+                }
+
+                cache = new FitnessCache(size);
+            } else if (args[i].startsWith("metrics:")) {
+                metricsPath = args[i].replace("metrics:", "");
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
 
         if (n < 2) {
             System.err.println("Parameter 3 must be at least 2.");
@@ -78,17 +151,53 @@ public class BoxFilling {
             return;
         }
 
-        StickBoxSolution[] population = new StickBoxSolution[populationSize];
+        CsvMetricsListener csv = null;
+
+        if (metricsPath != null) {
+            try {
+                csv = new CsvMetricsListener(Paths.get(metricsPath));
+            } catch (IOException exc) {
+                System.err.println("Couldn't create metrics file.");
+                return;
+            }
+        }
+
+        boolean multiple = islands > 1;
+        MetricsListener listener = csv != null ? csv : snapshot -> System.out.println(
+                (multiple ? "Island " + snapshot.getSource() + " " : "") + "Iteration " + snapshot.getIteration()
+                        + " best length: " + (int) snapshot.getBest().getFitness()
+                        + " mean length: " + snapshot.getMeanFitness()
+                        + " diversity: " + snapshot.getDiversity());
         Random rand = new Random();
+        List<SteadyStateGeneticAlgorithm> algorithms = new ArrayList<>(islands);
+
+        for (int island = 0; island < islands; island++) {
+            StickBoxSolution[] population = new StickBoxSolution[populationSize];
+
+            for (int i = 0; i < populationSize; i++) {
+                population[i] = generateSolution(input, rand, packing);
+            }
 
-        for (int i = 0; i < populationSize; i++) {
-            population[i] = generateSolution(input, rand);
+            SteadyStateGeneticAlgorithm algorithm = new SteadyStateGeneticAlgorithm(population, acceptableLength,
+                    maxIter, new TournamentSelection(n), new TournamentSelection(m), p,
+                    new StickBoxMutator(mutationFactor), new StickBoxCrossover());
+
+            if (cache != null) {
+                algorithm.setFitnessCache(cache);
+            }
+
+            algorithm.setMetrics(new MetricsCollector<>(island, METRICS_INTERVAL, DIVERSITY_SAMPLES,
+                    StickBoxSolution::distance, listener));
+
+            algorithms.add(algorithm);
         }
 
-        SteadyStateGeneticAlgorithm algorithm = new SteadyStateGeneticAlgorithm(population, acceptableLength,
-                maxIter, new TournamentSelection(n), new TournamentSelection(m), p, new StickBoxMutator(mutationFactor),
-                new StickBoxCrossover());
-        StickBoxSolution solution = algorithm.run();
+        StickBoxSolution solution = islands == 1 ? algorithms.get(0).run()
+                : new IslandModel<>(algorithms, MIGRATION_INTERVAL, MIGRANTS, Comparator.naturalOrder()).run();
+
+        if (csv != null) {
+            csv.close();
+        }
 
         System.out.println("Solution:\n" + solution + "\nLength:" + (int) solution.getFitness());
     }
@@ -98,10 +207,11 @@ public class BoxFilling {
      *
      * @param numbers a {@link List} containing sticks to be used.
      * @param rand used to generate random values.
+     * @param packing used to pack the sticks into columns.
      *
      * @return new randomly generated {@link StickBoxSolution}.
      */
-    private static StickBoxSolution generateSolution(List<Integer> numbers, Random rand) {
+    private static StickBoxSolution generateSolution(List<Integer> numbers, Random rand, PackingStrategy packing) {
         List<Integer> copy = new ArrayList<>(numbers);
         int[] values = new int[numbers.size()];
 
@@ -112,6 +222,6 @@ public class BoxFilling {
 
         values[numbers.size() - 1] = copy.remove(0);
 
-        return new StickBoxSolution(values);
+        return new StickBoxSolution(values, packing);
     }
 }
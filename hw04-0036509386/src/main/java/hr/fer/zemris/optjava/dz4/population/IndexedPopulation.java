@@ -0,0 +1,210 @@
+package hr.fer.zemris.optjava.dz4.population;
+
+import hr.fer.zemris.optjava.dz4.solutions.Solution;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A population of {@link Solution}s that keeps track of the slot
+ * each solution occupies and maintains a tournament tree over the slots,
+ * so the best and worst solution are available in constant time
+ * and a solution can be replaced in {@code O(log n)}.
+ * <p>
+ * Solutions are identified by reference, not by {@code equals},
+ * and their fitness must not change while they are in the population.
+ * Equal solutions are counted separately, so checking for a duplicate
+ * is as cheap as the solution's {@code hashCode}.
+ *
+ * @param <T> type of solution used.
+ *
+ * @author Mateo Imbrišak
+ */
+
+public class IndexedPopulation<T extends Solution> {
+
+    /**
+     * Solutions in the population, by slot.
+     */
+    private final T[] solutions;
+
+    /**
+     * Slot occupied by each solution.
+     */
+    private final Map<T, Integer> slots;
+
+    /**
+     * Number of solutions in the population equal to each solution.
+     */
+    private final Map<T, Integer> copies;
+
+    /**
+     * Number of leaves in the tournament trees, a power of two.
+     */
+    private final int leaves;
+
+    /**
+     * Tournament tree in which every node holds the slot
+     * of the solution with the lowest fitness in its subtree.
+     */
+    private final int[] minimum;
+
+    /**
+     * Tournament tree in which every node holds the slot
+     * of the solution with the highest fitness in its subtree.
+     */
+    private final int[] maximum;
+
+    /**
+     * Default constructor that builds the population
+     * from the given {@code solutions}.
+     *
+     * @param solutions initial population, used as the backing array.
+     */
+    public IndexedPopulation(T[] solutions) {
+        if (solutions.length == 0) {
+            throw new IllegalArgumentException("Population cannot be empty.");
+        }
+
+        int size = solutions.length;
+        int leaves = 1;
+
+        while (leaves < size) {
+            leaves <<= 1;
+        }
+
+        this.solutions = solutions;
+        this.slots = new IdentityHashMap<>(size);
+        this.copies = new HashMap<>(2 * size);
+        this.leaves = leaves;
+        this.minimum = new int[2 * leaves];
+        this.maximum = new int[2 * leaves];
+
+        for (int i = 0; i < size; i++) {
+            slots.put(solutions[i], i);
+            copies.merge(solutions[i], 1, Integer::sum);
+        }
+
+        Arrays.fill(minimum, leaves, 2 * leaves, -1);
+        Arrays.fill(maximum, leaves, 2 * leaves, -1);
+
+        for (int i = 0; i < size; i++) {
+            minimum[leaves + i] = i;
+            maximum[leaves + i] = i;
+        }
+
+        for (int node = leaves - 1; node > 0; node--) {
+            updateNode(node);
+        }
+    }
+
+    /**
+     * Provides the backing array of solutions, which
+     * can be passed to selections but must not be modified.
+     *
+     * @return solutions in the population.
+     */
+    public T[] getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * Provides the number of solutions in the population.
+     *
+     * @return size of the population.
+     */
+    public int size() {
+        return solutions.length;
+    }
+
+    /**
+     * Checks whether a solution equal to the given {@code solution} is in the population.
+     *
+     * @param solution being checked.
+     *
+     * @return {@code true} if an equal solution is in the population, otherwise {@code false}.
+     */
+    public boolean containsEqual(T solution) {
+        return copies.containsKey(solution);
+    }
+
+    /**
+     * Provides the solution with the lowest fitness.
+     *
+     * @return solution with the lowest fitness.
+     */
+    public T getLowest() {
+        return solutions[minimum[1]];
+    }
+
+    /**
+     * Provides the solution with the highest fitness.
+     *
+     * @return solution with the highest fitness.
+     */
+    public T getHighest() {
+        return solutions[maximum[1]];
+    }
+
+    /**
+     * Replaces the {@code loser} with the {@code winner}.
+     *
+     * @param loser being replaced.
+     * @param winner being inserted.
+     *
+     * @throws IllegalArgumentException if {@code loser} is not in the population.
+     */
+    public void replace(T loser, T winner) {
+        Integer slot = slots.remove(loser);
+
+        if (slot == null) {
+            throw new IllegalArgumentException("Solution is not in the population.");
+        }
+
+        solutions[slot] = winner;
+        slots.put(winner, slot);
+        copies.computeIfPresent(loser, (solution, count) -> count > 1 ? count - 1 : null);
+        copies.merge(winner, 1, Integer::sum);
+
+        for (int node = (leaves + slot) >> 1; node > 0; node >>= 1) {
+            updateNode(node);
+        }
+    }
+
+    /**
+     * Recalculates the given inner {@code node} of both trees from its children.
+     *
+     * @param node being recalculated.
+     */
+    private void updateNode(int node) {
+        int left = 2 * node;
+        int right = left + 1;
+
+        minimum[node] = pick(minimum[left], minimum[right], true);
+        maximum[node] = pick(maximum[left], maximum[right], false);
+    }
+
+    /**
+     * Picks the slot of the solution with lower or higher fitness,
+     * preferring the first one on ties. Empty slots are marked with {@code -1}.
+     *
+     * @param first slot.
+     * @param second slot.
+     * @param lower whether the lower fitness wins.
+     *
+     * @return winning slot.
+     */
+    private int pick(int first, int second, boolean lower) {
+        if (second < 0) {
+            return first;
+        } else if (first < 0) {
+            return second;
+        }
+
+        int comparison = solutions[first].compareTo(solutions[second]);
+
+        return (lower ? comparison <= 0 : comparison >= 0) ? first : second;
+    }
+}
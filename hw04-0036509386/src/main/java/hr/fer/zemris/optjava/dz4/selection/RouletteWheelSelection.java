@@ -2,13 +2,18 @@ package hr.fer.zemris.optjava.dz4.selection;
 
 import hr.fer.zemris.optjava.dz4.solutions.Solution;
 
-import java.util.Arrays;
 import java.util.Random;
 
 /**
  * An implementation of {@link Selection} that
  * selects {@link Solution}s based on roulette
  * wheel algorithm.
+ * <p>
+ * Each solution is selected proportionally to the difference between
+ * its fitness and the lowest fitness in the population. The wheel is
+ * built as an alias table in {@link #prepare(Solution[])}, after which
+ * every selection takes constant time. The wheel has to be prepared
+ * again whenever the population changes, even if it changes in place.
  *
  * @author Mateo Imbrišak
  */
@@ -20,60 +25,140 @@ public class RouletteWheelSelection implements Selection<Solution> {
      */
     private final Random rand;
 
+    /**
+     * Population the alias table was built for.
+     */
+    private Solution[] prepared;
+
+    /**
+     * Probability of keeping the drawn slot instead of its alias.
+     */
+    private double[] probabilities;
+
+    /**
+     * Slot selected when the drawn slot is not kept.
+     */
+    private int[] aliases;
+
+    /**
+     * Work list of slots with less than average weight.
+     */
+    private int[] small;
+
+    /**
+     * Work list of slots with at least average weight.
+     */
+    private int[] large;
+
     /**
      * Default constructor that initializes {@link #rand} random
      * number generator.
      */
     public RouletteWheelSelection() {
-        this.rand = new Random();
+        this(new Random());
+    }
+
+    /**
+     * Constructor that assigns the {@link #rand} random
+     * number generator.
+     *
+     * @param rand used to generate random values.
+     */
+    public RouletteWheelSelection(Random rand) {
+        this.rand = rand;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the wheel wasn't prepared for the given {@code population}.
+     */
     @Override
     public Solution select(Solution[] population) {
+        return select(population, rand);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the wheel wasn't prepared for the given {@code population}.
+     */
+    @Override
+    public Solution select(Solution[] population, Random rand) {
+        if (population != prepared) {
+            throw new IllegalStateException("Roulette wheel wasn't prepared for the given population.");
+        }
+
+        int slot = rand.nextInt(population.length);
+
+        return population[rand.nextDouble() < probabilities[slot] ? slot : aliases[slot]];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Builds the alias table using Vose's method. If all solutions
+     * have the same fitness, each one is equally likely to be selected.
+     */
+    @Override
+    public void prepare(Solution[] population) {
         int size = population.length;
-        Solution[] copy = Arrays.copyOf(population, size);
 
-        Solution worst = copy[size - 1];
-        double[] effectiveValues = new double[size];
+        if (probabilities == null || probabilities.length != size) {
+            probabilities = new double[size];
+            aliases = new int[size];
+            small = new int[size];
+            large = new int[size];
+        }
 
-        for (int i = 0; i < size; i++) {
-            effectiveValues[i] = copy[i].getFitness() - worst.getFitness();
+        double worst = Double.POSITIVE_INFINITY;
+
+        for (Solution solution : population) {
+            worst = Math.min(worst, solution.getFitness());
         }
 
-        double sum = sum(effectiveValues);
+        double sum = 0;
 
         for (int i = 0; i < size; i++) {
-            effectiveValues[i] /= sum;
+            probabilities[i] = population[i].getFitness() - worst;
+            sum += probabilities[i];
         }
 
-        double roll = rand.nextDouble();
-        double currentSum = 0;
+        int smallSize = 0;
+        int largeSize = 0;
 
         for (int i = 0; i < size; i++) {
-            currentSum += effectiveValues[i];
+            probabilities[i] = sum > 0 ? probabilities[i] * size / sum : 1;
+            aliases[i] = i;
 
-            if (roll <= currentSum) {
-                return copy[i];
+            if (probabilities[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
             }
         }
 
-        return worst;
-    }
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[largeSize - 1];
 
-    /**
-     * Calculates the sum of values in the given array.
-     *
-     * @param values being summed.
-     *
-     * @return sum of all values in the given array.
-     */
-    private double sum(double[] values) {
-        double sum = 0;
+            aliases[less] = more;
+            probabilities[more] -= 1 - probabilities[less];
+
+            if (probabilities[more] < 1) {
+                largeSize--;
+                small[smallSize++] = more;
+            }
+        }
+
+        while (largeSize > 0) {
+            probabilities[large[--largeSize]] = 1;
+        }
 
-        for (double value : values) {
-            sum += value;
+        while (smallSize > 0) {
+            probabilities[small[--smallSize]] = 1;
         }
 
-        return sum;
+        prepared = population;
     }
 }
@@ -1,5 +1,7 @@
 package hr.fer.zemris.optjava.dz4.selection;
 
+import java.util.Random;
+
 /**
  * An interface used to model selections
  * used to select parents from a given population.
@@ -17,4 +19,25 @@ public interface Selection<T> {
      * @return selected parent.
      */
     T select(T[] population);
+
+    /**
+     * Selects a solution from the given {@code population} using the given random
+     * number generator instead of the selection's own. It only reads the selection,
+     * so once prepared, a selection can be shared by threads using their own generators.
+     *
+     * @param population used as pool from which to select the parent.
+     * @param rand used to generate random values.
+     *
+     * @return selected parent.
+     */
+    T select(T[] population, Random rand);
+
+    /**
+     * Called before parents are selected from the given {@code population},
+     * so the selection can precompute whatever it needs. It must be called
+     * again whenever the population changes, including changes made in place.
+     *
+     * @param population from which parents will be selected.
+     */
+    default void prepare(T[] population) {}
 }
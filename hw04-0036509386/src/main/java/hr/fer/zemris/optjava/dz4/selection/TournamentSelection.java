@@ -31,13 +31,29 @@ public class TournamentSelection implements Selection<Solution> {
      * @param n number of solutions used in each selection.
      */
     public TournamentSelection(int n) {
+        this(n, new Random());
+    }
+
+    /**
+     * Constructor that assigns {@link #n} number of solutions
+     * used in each selection and the random number generator.
+     *
+     * @param n number of solutions used in each selection.
+     * @param rand used to randomly select solutions.
+     */
+    public TournamentSelection(int n, Random rand) {
         this.n = n;
-        this.rand = new Random();
+        this.rand = rand;
     }
 
     @Override
     public Solution select(Solution[] population) {
-        return select(population, true);
+        return select(population, true, rand);
+    }
+
+    @Override
+    public Solution select(Solution[] population, Random rand) {
+        return select(population, true, rand);
     }
 
     /**
@@ -48,7 +64,7 @@ public class TournamentSelection implements Selection<Solution> {
      * @return worst {@link Solution} from the given {@code population}.
      */
     public Solution selectWorst(Solution[] population) {
-        return select(population, false);
+        return select(population, false, rand);
     }
 
     /**
@@ -57,16 +73,17 @@ public class TournamentSelection implements Selection<Solution> {
      *
      * @param population from which the {@link Solution} will be selected.
      * @param best whether the selected solution is best or worst.
+     * @param rand used to randomly select solutions.
      *
      * @return best or worst {@link Solution} based on {@code best}.
      */
-    private Solution select(Solution[] population, final boolean best) {
+    private Solution select(Solution[] population, final boolean best, Random rand) {
         int size = population.length;
 
-        Solution bestSolution = population[rand.nextInt(size - 1)];
+        Solution bestSolution = population[rand.nextInt(size)];
 
         for (int i = 0; i < n - 1; i++) {
-            Solution selectedSolution = population[rand.nextInt(size - 1)];
+            Solution selectedSolution = population[rand.nextInt(size)];
 
             if (best && selectedSolution.getFitness() >= bestSolution.getFitness()) {
                 bestSolution = selectedSolution;
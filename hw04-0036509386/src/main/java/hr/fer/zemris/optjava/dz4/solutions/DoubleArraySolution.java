@@ -1,5 +1,7 @@
 package hr.fer.zemris.optjava.dz4.solutions;
 
+import hr.fer.zemris.optjava.dz4.cache.Zobrist;
+
 import java.util.Arrays;
 import java.util.Random;
 
@@ -22,6 +24,11 @@ public class DoubleArraySolution implements Solution {
      */
     private double fitness;
 
+    /**
+     * {@link Zobrist} hash of the values at their positions.
+     */
+    private long hash;
+
     /**
      * Constructor that assigns an array for {@link #values}.
      *
@@ -29,6 +36,7 @@ public class DoubleArraySolution implements Solution {
      */
     public DoubleArraySolution(double[] values) {
         this.values = values;
+        this.hash = calculateHash();
     }
 
     /**
@@ -39,12 +47,26 @@ public class DoubleArraySolution implements Solution {
      * @param highBound used to generate values.
      */
     public DoubleArraySolution(int size, int lowBound, int highBound) {
+        this(size, lowBound, highBound, new Random());
+    }
+
+    /**
+     * Constructor that generates a random {@code DoubleArraySolution}
+     * using the given random number generator.
+     *
+     * @param size of the internal {@link #values} array.
+     * @param lowBound used to generate values.
+     * @param highBound used to generate values.
+     * @param rand used to generate values.
+     */
+    public DoubleArraySolution(int size, int lowBound, int highBound, Random rand) {
         this.values = new double[size];
-        Random rand = new Random();
 
         for (int i = 0; i < size; i ++) {
             values[i] = lowBound + rand.nextDouble() * (highBound - lowBound);
         }
+
+        this.hash = calculateHash();
     }
 
     /**
@@ -67,6 +89,83 @@ public class DoubleArraySolution implements Solution {
         return values[index];
     }
 
+    /**
+     * Assigns a new {@code value} at the given {@code index}, keeping the hash up to date.
+     * The fitness is not recalculated.
+     *
+     * @param index of the value.
+     * @param value being assigned.
+     */
+    public void setValue(int index, double value) {
+        hash ^= Zobrist.key(index, values[index]) ^ Zobrist.key(index, value);
+        values[index] = value;
+    }
+
+    /**
+     * Copies the values, fitness and hash of the given {@code solution} into this one.
+     *
+     * @param solution being copied, of the same length.
+     */
+    public void copyFrom(DoubleArraySolution solution) {
+        System.arraycopy(solution.values, 0, values, 0, values.length);
+        fitness = solution.fitness;
+        hash = solution.hash;
+    }
+
+    /**
+     * Creates a copy of this solution, including its fitness.
+     *
+     * @return copy of this solution.
+     */
+    public DoubleArraySolution duplicate() {
+        DoubleArraySolution copy = new DoubleArraySolution(new double[values.length]);
+        copy.copyFrom(this);
+
+        return copy;
+    }
+
+    /**
+     * Provides the {@link Zobrist} hash of this solution.
+     *
+     * @return 64-bit hash of this solution.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Calculates the Euclidean distance between this solution and the given {@code other}.
+     *
+     * @param other solution of the same length.
+     *
+     * @return distance between the solutions.
+     */
+    public double distance(DoubleArraySolution other) {
+        double sum = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            double delta = values[i] - other.values[i];
+            sum += delta * delta;
+        }
+
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Calculates the {@link Zobrist} hash of all values.
+     *
+     * @return hash of all values.
+     */
+    private long calculateHash() {
+        long result = 0;
+
+        for (int i = 0, size = values.length; i < size; i++) {
+            result ^= Zobrist.key(i, values[i]);
+        }
+
+        return result;
+    }
+
     @Override
     public double getFitness() {
         return fitness;
@@ -91,11 +190,11 @@ public class DoubleArraySolution implements Solution {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DoubleArraySolution that = (DoubleArraySolution) o;
-        return Arrays.equals(values, that.values);
+        return hash == that.hash && Arrays.equals(values, that.values);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(values);
+        return Long.hashCode(hash);
     }
 }
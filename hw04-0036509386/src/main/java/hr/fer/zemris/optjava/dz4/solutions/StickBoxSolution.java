@@ -1,14 +1,30 @@
 package hr.fer.zemris.optjava.dz4.solutions;
 
+import hr.fer.zemris.optjava.dz4.cache.Zobrist;
+import hr.fer.zemris.optjava.dz4.packing.PackingStrategy;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * A {@link Solution} that represents a configuration of
  * a box of 1-dimensional sticks.
+ * <p>
+ * Sticks are kept in an {@code array} together with the index
+ * at which each column starts. Changes only mark the position
+ * of the first changed stick, and the columns are recalculated
+ * from there when they are next needed.
+ * <p>
+ * By default the sticks are packed {@link PackingStrategy#NEXT_FIT next fit},
+ * so each column is a run of consecutive sticks. With any other
+ * {@link PackingStrategy} the whole sequence is packed again after a change.
+ * <p>
+ * A {@link Zobrist} hash of the sequence is updated with every change,
+ * which makes {@link #hashCode()} constant time and lets a fitness
+ * known from an equal solution be reused through {@link #setFitness(double)}.
+ * The packing strategy is part of the hash and of equality, because
+ * the same sequence can need a different number of columns.
  *
  * @author Mateo Imbrišak
  */
@@ -23,12 +39,44 @@ public class StickBoxSolution implements Solution {
     /**
      * Keeps the sticks in the box.
      */
-    private List<Integer> sticks;
+    private final int[] sticks;
+
+    /**
+     * Used to pack the sticks into columns.
+     */
+    private final PackingStrategy packing;
+
+    /**
+     * Index of the first stick of each column when packing next fit.
+     */
+    private final int[] columnStarts;
+
+    /**
+     * Column of each stick for other packing strategies, otherwise {@code null}.
+     */
+    private final int[] stickColumns;
+
+    /**
+     * Number of columns, which is the length of the box.
+     */
+    private int columns;
+
+    /**
+     * Index of the first stick changed since the columns were calculated,
+     * equal to the number of sticks if nothing changed.
+     */
+    private int dirtyFrom;
+
+    /**
+     * Fitness assigned through {@link #setFitness(double)} while the columns
+     * are not calculated, or {@code 0} if it is unknown.
+     */
+    private int knownColumns;
 
     /**
-     * Length of the box.
+     * {@link Zobrist} hash of the packing strategy and the sticks at their positions.
      */
-    private double fitness;
+    private long hash;
 
     /**
      * Default constructor that adds all values from the given {@code array}
@@ -37,8 +85,30 @@ public class StickBoxSolution implements Solution {
      * @param sticks to be added.
      */
     public StickBoxSolution(int[] sticks) {
-        this.sticks = Arrays.stream(sticks).boxed().collect(Collectors.toList());
-        calculateFitness();
+        this(sticks, PackingStrategy.NEXT_FIT);
+    }
+
+    /**
+     * Constructor that adds all values from the given {@code array}
+     * to the configuration packed by the given {@code packing}.
+     *
+     * @param sticks to be added.
+     * @param packing used to pack the sticks into columns.
+     */
+    public StickBoxSolution(int[] sticks, PackingStrategy packing) {
+        boolean nextFit = packing == PackingStrategy.NEXT_FIT;
+
+        this.sticks = Arrays.copyOf(sticks, sticks.length);
+        this.packing = packing;
+        this.columnStarts = nextFit ? new int[Math.max(1, sticks.length)] : null;
+        this.stickColumns = nextFit ? null : new int[sticks.length];
+        this.columns = 1;
+        this.dirtyFrom = 0;
+        this.hash = Zobrist.key(packing);
+
+        for (int i = 0, size = sticks.length; i < size; i++) {
+            hash ^= Zobrist.key(i, sticks[i]);
+        }
     }
 
     /**
@@ -48,19 +118,23 @@ public class StickBoxSolution implements Solution {
      * @param sticks to be added.
      */
     public StickBoxSolution(List<Integer> sticks) {
-        this.sticks = new ArrayList<>(sticks);
-        calculateFitness();
+        this(sticks.stream().mapToInt(Integer::intValue).toArray());
     }
 
     /**
-     * Constructor used for {@link #duplicate()} to skip {@link #fitness} calculation.
+     * Constructor used for {@link #duplicate()} to skip column calculation.
      *
-     * @param sticks to be assigned.
-     * @param fitness to be assigned.
+     * @param original solution being copied.
      */
-    private StickBoxSolution(List<Integer> sticks, double fitness) {
-        this.sticks = sticks;
-        this.fitness = fitness;
+    private StickBoxSolution(StickBoxSolution original) {
+        this.sticks = Arrays.copyOf(original.sticks, original.sticks.length);
+        this.packing = original.packing;
+        this.columnStarts = original.columnStarts == null ? null : original.columnStarts.clone();
+        this.stickColumns = original.stickColumns == null ? null : original.stickColumns.clone();
+        this.columns = original.columns;
+        this.dirtyFrom = original.dirtyFrom;
+        this.knownColumns = original.knownColumns;
+        this.hash = original.hash;
     }
 
     /**
@@ -69,9 +143,46 @@ public class StickBoxSolution implements Solution {
      * @return duplicate of this solution.
      */
     public StickBoxSolution duplicate() {
-        List<Integer> copy = new ArrayList<>(sticks);
+        return new StickBoxSolution(this);
+    }
 
-        return new StickBoxSolution(copy, fitness);
+    /**
+     * Provides the {@link Zobrist} hash of this configuration.
+     *
+     * @return 64-bit hash of this configuration.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Calculates the fraction of positions at which this solution
+     * and the given {@code other} hold sticks of different length.
+     *
+     * @param other solution with the same number of sticks.
+     *
+     * @return distance between the solutions, from {@code 0} to {@code 1}.
+     */
+    public double distance(StickBoxSolution other) {
+        int different = 0;
+
+        for (int i = 0; i < sticks.length; i++) {
+            if (sticks[i] != other.sticks[i]) {
+                different++;
+            }
+        }
+
+        return (double) different / sticks.length;
+    }
+
+    /**
+     * Assigns the fitness of an equal configuration, so it doesn't
+     * have to be calculated unless the columns are requested.
+     *
+     * @param fitness of an equal configuration.
+     */
+    public void setFitness(double fitness) {
+        knownColumns = (int) fitness;
     }
 
     /**
@@ -80,7 +191,7 @@ public class StickBoxSolution implements Solution {
      * @return total number of sticks.
      */
     public int getNumberOfSticks() {
-        return sticks.size();
+        return sticks.length;
     }
 
     /**
@@ -91,59 +202,94 @@ public class StickBoxSolution implements Solution {
      * @return {@code array} representing the column of sticks ak the requested {@code index}.
      */
     public int[] getStickColumn(int index) {
-        if (fitness <= index) {
+        updateColumns();
+
+        if (index < 0 || columns <= index) {
             throw new IndexOutOfBoundsException("Index cannot be greater than current fitness.");
         }
 
-        int currentIndex = 0, counter = -1, sum = 0;
+        if (stickColumns != null) {
+            return packedColumn(index);
+        }
 
-        if (index != 0) {
-            while (currentIndex != index) {
-                counter++;
-                int stick = sticks.get(counter);
+        int end = index + 1 < columns ? columnStarts[index + 1] : sticks.length;
 
-                sum += counter;
+        return Arrays.copyOfRange(sticks, columnStarts[index], end);
+    }
 
-                if (sum > MAXIMUM_HEIGHT) {
-                    currentIndex++;
-                    sum = stick;
-                }
-            }
-        } else {
-            counter = 0;
+    /**
+     * Inserts given column of sticks to the backs of this configuration
+     * and removes sticks in the column from their previous positions.
+     * For each stick in the column the first stick of the same length
+     * is removed, so the column must be taken from a configuration
+     * of the same sticks.
+     *
+     * @param column to be inserted.
+     */
+    public void insertColumn(int[] column) {
+        int maximum = 0;
+
+        for (int stick : column) {
+            maximum = Math.max(maximum, stick);
         }
 
-        List<Integer> column = new ArrayList<>();
-        sum = 0;
+        int[] toRemove = new int[maximum + 1];
 
-        for (; counter < sticks.size(); counter++) {
-            int stick = sticks.get(counter);
+        for (int stick : column) {
+            toRemove[stick]++;
+        }
 
-            sum += stick;
+        int size = sticks.length;
+        int kept = 0;
+        int firstRemoved = size;
 
-            if (sum > MAXIMUM_HEIGHT) {
-                break;
+        for (int i = 0; i < size; i++) {
+            int stick = sticks[i];
+
+            if (stick <= maximum && toRemove[stick] > 0) {
+                toRemove[stick]--;
+                firstRemoved = Math.min(firstRemoved, i);
+            } else {
+                sticks[kept++] = stick;
             }
 
-            column.add(sticks.get(counter));
+            if (i >= firstRemoved) {
+                hash ^= Zobrist.key(i, stick);
+            }
         }
 
-        return convertToArray(column);
+        if (kept + column.length != size) {
+            throw new IllegalArgumentException("Column contains sticks that aren't in this configuration.");
+        }
+
+        System.arraycopy(column, 0, sticks, kept, column.length);
+        hash ^= rangeHash(firstRemoved, size);
+        markDirty(firstRemoved);
     }
 
     /**
-     * Inserts given column of sticks to the backs of this configuration
-     * and removes sticks in the column from their previous positions.
+     * Moves the stick at index {@code from} so it ends up at index {@code to},
+     * shifting the sticks in between.
      *
-     * @param column to be inserted.
+     * @param from current index of the stick.
+     * @param to new index of the stick.
      */
-    public void insertColumn(int[] column) {
-        for (Integer stick : column) {
-            sticks.remove(stick);
-            sticks.add(stick);
+    public void moveStick(int from, int to) {
+        int stick = sticks[from];
+        int low = Math.min(from, to);
+        int high = Math.max(from, to) + 1;
+
+        hash ^= rangeHash(low, high);
+
+        if (from < to) {
+            System.arraycopy(sticks, from + 1, sticks, from, to - from);
+        } else {
+            System.arraycopy(sticks, to, sticks, to + 1, from - to);
         }
 
-        calculateFitness();
+        sticks[to] = stick;
+        hash ^= rangeHash(low, high);
+        markDirty(low);
     }
 
     /**
@@ -152,49 +298,111 @@ public class StickBoxSolution implements Solution {
      * @return {@link List} representing the current stick configuration.
      */
     public List<Integer> toList() {
-        return new ArrayList<>(sticks);
+        List<Integer> list = new ArrayList<>(sticks.length);
+
+        for (int stick : sticks) {
+            list.add(stick);
+        }
+
+        return list;
     }
 
     /**
-     * Converts a {@link List} of {@link Integer} objects
-     * to an array of primitive {@code int} types.
+     * Collects the sticks placed into the given column by a packing strategy other than next fit.
      *
-     * @param list to be converted.
+     * @param index of the requested column.
      *
-     * @return an array of {@code int}s based in the given {@link List}.
+     * @return sticks in the requested column, in order.
      */
-    private int[] convertToArray(List<Integer> list) {
-        int size = list.size();
-        int[] ret = new int[size];
+    private int[] packedColumn(int index) {
+        int[] column = new int[sticks.length];
+        int length = 0;
 
-        for (int i = 0; i < size; i++) {
-            ret[i] = list.get(i);
+        for (int i = 0, size = sticks.length; i < size; i++) {
+            if (stickColumns[i] == index) {
+                column[length++] = sticks[i];
+            }
         }
 
-        return ret;
+        return Arrays.copyOf(column, length);
     }
 
     /**
-     * Used internally to calculate {@link #fitness} after
-     * initialization and changes.
+     * Calculates the {@link Zobrist} hash of the sticks in the given range.
+     *
+     * @param start of the range, inclusive.
+     * @param end of the range, exclusive.
+     *
+     * @return hash of the sticks in the range.
      */
-    private void calculateFitness() {
-        fitness = 1;
+    private long rangeHash(int start, int end) {
+        long result = 0;
+
+        for (int i = start; i < end; i++) {
+            result ^= Zobrist.key(i, sticks[i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Remembers that sticks starting at the given {@code index} changed.
+     *
+     * @param index of the first changed stick.
+     */
+    private void markDirty(int index) {
+        dirtyFrom = Math.min(dirtyFrom, index);
+        knownColumns = 0;
+    }
+
+    /**
+     * Recalculates the columns starting with the last one
+     * that begins before the first changed stick, or packs
+     * all sticks again when not packing next fit.
+     */
+    private void updateColumns() {
+        int size = sticks.length;
+
+        if (dirtyFrom >= size) {
+            return;
+        }
+
+        if (stickColumns != null) {
+            columns = packing.pack(sticks, MAXIMUM_HEIGHT, stickColumns);
+            dirtyFrom = size;
+            return;
+        }
+
+        int column = 0;
+
+        while (column + 1 < columns && columnStarts[column + 1] < dirtyFrom) {
+            column++;
+        }
+
+        columns = column + 1;
         int sum = 0;
 
-        for (int stick : sticks) {
-            sum += stick;
+        for (int i = columnStarts[column]; i < size; i++) {
+            sum += sticks[i];
 
             if (sum > MAXIMUM_HEIGHT) {
-                fitness++;
-                sum = stick;
+                columnStarts[columns++] = i;
+                sum = sticks[i];
             }
         }
+
+        dirtyFrom = size;
     }
 
     @Override
     public double getFitness() {
-        return fitness;
+        if (knownColumns > 0 && dirtyFrom < sticks.length) {
+            return knownColumns;
+        }
+
+        updateColumns();
+
+        return columns;
     }
 
     @Override
@@ -202,18 +410,34 @@ public class StickBoxSolution implements Solution {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         StickBoxSolution that = (StickBoxSolution) o;
-        return sticks.equals(that.sticks);
+        return hash == that.hash && packing == that.packing && Arrays.equals(sticks, that.sticks);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sticks);
+        return Long.hashCode(hash);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
 
+        if (stickColumns != null) {
+            updateColumns();
+
+            for (int i = 0; i < columns; i++) {
+                for (int stick : packedColumn(i)) {
+                    sb.append(stick).append(" ");
+                }
+
+                if (i + 1 < columns) {
+                    sb.append("\n");
+                }
+            }
+
+            return sb.toString();
+        }
+
         int sum = 0;
 
         for (int stick : sticks) {
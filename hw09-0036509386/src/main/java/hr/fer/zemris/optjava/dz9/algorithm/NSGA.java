@@ -164,6 +164,7 @@ public class NSGA {
             calculateFronts();
 
             calculateFitness();
+            selection.prepare(fitness);
 
             for (int i = 0; i < populationSize; i++) {
                 double[] firstParent = solutions[selection.select(fitness)];
@@ -1,11 +1,13 @@
 package hr.fer.zemris.optjava.dz9.selection;
 
-import java.util.Arrays;
 import java.util.Random;
-import java.util.stream.DoubleStream;
 
 /**
  * A Selection based on a Roulette-Wheel.
+ * <p>
+ * The wheel is built as an alias table in {@link #prepare(double[])},
+ * after which every selection takes constant time. The wheel has to be
+ * prepared again whenever the values of the array change.
  *
  * @author Mateo Imbrišak
  */
@@ -18,14 +20,29 @@ public class RouletteWheelSelection {
     private final Random rand;
 
     /**
-     * Keeps cached copy of last given array.
+     * Keeps the array the alias table was built for.
      */
-    private double[] copy;
+    private double[] prepared;
 
     /**
-     * Keeps the last calculated proportions.
+     * Probability of keeping the drawn index instead of its alias.
      */
-    private double[] proportions;
+    private double[] probabilities;
+
+    /**
+     * Index selected when the drawn index is not kept.
+     */
+    private int[] aliases;
+
+    /**
+     * Work list of indexes with less than average weight.
+     */
+    private int[] small;
+
+    /**
+     * Work list of indexes with at least average weight.
+     */
+    private int[] large;
 
     /**
      * Default constructor that assigns random value generator.
@@ -37,46 +54,90 @@ public class RouletteWheelSelection {
     }
 
     /**
-     * Selects an index to be used as a parent based on the given array.
+     * Builds the alias table for the given {@code fitness} using Vose's method.
+     * Must be called whenever the values in the array change, once per generation.
+     * If all values are equal, each index is equally likely to be selected.
      *
      * @param fitness used to perform the selection.
-     *
-     * @return index of selected parent.
      */
-    public int select(double[] fitness) {
-        if (!Arrays.equals(fitness, copy)) {
-            copy = Arrays.copyOf(fitness, fitness.length);
-            proportions = Arrays.copyOf(fitness, fitness.length);
+    public void prepare(double[] fitness) {
+        int size = fitness.length;
+
+        if (probabilities == null || probabilities.length != size) {
+            probabilities = new double[size];
+            aliases = new int[size];
+            small = new int[size];
+            large = new int[size];
+        }
 
-            double min = Double.POSITIVE_INFINITY;
-            int size = fitness.length;
+        double min = Double.POSITIVE_INFINITY;
 
-            for (double current : fitness) {
-                min = Math.min(current, min);
-            }
+        for (double current : fitness) {
+            min = Math.min(current, min);
+        }
 
-            for (int i = 0; i < size; i++) {
-                proportions[i] = proportions[i] - min;
-            }
+        double sum = 0;
+
+        for (int i = 0; i < size; i++) {
+            probabilities[i] = fitness[i] - min;
+            sum += probabilities[i];
+        }
 
-            double sum = DoubleStream.of(proportions).sum();
+        int smallSize = 0;
+        int largeSize = 0;
 
-            for (int i = 0; i < size; i++) {
-                proportions[i] = proportions[i] / sum;
+        for (int i = 0; i < size; i++) {
+            probabilities[i] = sum > 0 ? probabilities[i] * size / sum : 1;
+            aliases[i] = i;
+
+            if (probabilities[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
             }
         }
 
-        double roll = rand.nextDouble();
-        double sum = 0;
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[largeSize - 1];
 
-        for (int i = 0, size = fitness.length; i < size; i++) {
-            sum += proportions[i];
+            aliases[less] = more;
+            probabilities[more] -= 1 - probabilities[less];
 
-            if (sum >= roll) {
-                return i;
+            if (probabilities[more] < 1) {
+                largeSize--;
+                small[smallSize++] = more;
             }
         }
 
-        return fitness.length - 1;
+        while (largeSize > 0) {
+            probabilities[large[--largeSize]] = 1;
+        }
+
+        while (smallSize > 0) {
+            probabilities[small[--smallSize]] = 1;
+        }
+
+        prepared = fitness;
+    }
+
+    /**
+     * Selects an index to be used as a parent based on the given array,
+     * which must be the array last given to {@link #prepare(double[])}.
+     *
+     * @param fitness used to perform the selection.
+     *
+     * @return index of selected parent.
+     *
+     * @throws IllegalStateException if the wheel wasn't prepared for the given array.
+     */
+    public int select(double[] fitness) {
+        if (fitness != prepared) {
+            throw new IllegalStateException("Roulette wheel wasn't prepared for the given fitness.");
+        }
+
+        int index = rand.nextInt(fitness.length);
+
+        return rand.nextDouble() < probabilities[index] ? index : aliases[index];
     }
 }